@@ -1,6 +1,7 @@
 package com.rvvcode.ai.mcp.server.configuration;
 
 import com.rvvcode.ai.mcp.server.service.DomainEnhancer;
+import com.rvvcode.ai.mcp.server.service.JobTools;
 import com.rvvcode.ai.mcp.server.service.ProjectGenerator;
 import com.rvvcode.ai.mcp.server.service.TestGenerator;
 import org.springframework.ai.tool.ToolCallbackProvider;
@@ -15,9 +16,10 @@ public class ToolConfiguration {
     ToolCallbackProvider toolCallbackProvider(
             ProjectGenerator projectGenerator,
             DomainEnhancer domainEnhancer,
-            TestGenerator testGenerator) {
+            TestGenerator testGenerator,
+            JobTools jobTools) {
         return MethodToolCallbackProvider.builder()
-                .toolObjects(projectGenerator, domainEnhancer, testGenerator)
+                .toolObjects(projectGenerator, domainEnhancer, testGenerator, jobTools)
                 .build();
     }
 }
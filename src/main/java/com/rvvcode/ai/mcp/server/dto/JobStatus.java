@@ -0,0 +1,40 @@
+package com.rvvcode.ai.mcp.server.dto;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of an asynchronous tool job, as returned by {@code job_status} and persisted by the job store.
+ */
+public record JobStatus(
+        String jobId,
+        String tool,
+        Priority priority,
+        State state,
+        int completedSteps,
+        int totalSteps,
+        String message,
+        String result,
+        String error,
+        Instant createdAt,
+        Instant updatedAt) {
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isTerminal() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    /**
+     * Queue order among waiting jobs; jobs of equal priority run first-come, first-served.
+     */
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    public String summary() {
+        return "Job " + jobId + " " + state + " (" + tool + ", priority " + priority + ")"
+                + "\nPoll job_status with this jobId for progress and the result; cancel with job_cancel.";
+    }
+}
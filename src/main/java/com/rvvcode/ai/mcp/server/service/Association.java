@@ -0,0 +1,102 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import javax.lang.model.SourceVersion;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Relationship declared in the enhance_domain field map as {@code ManyToOne:Target} or
+ * {@code OneToMany:Target[:mappedBy]}. Any other value is treated as a plain column type.
+ *
+ * @param property  field name on the owning entity
+ * @param kind      association type; both kinds are generated LAZY
+ * @param target    target entity name without the {@code Entity} suffix, e.g. {@code Customer}
+ * @param mappedBy  for {@code OneToMany}, the {@code ManyToOne} field on the target that owns the foreign key
+ */
+record Association(String property, Kind kind, String target, String mappedBy) {
+
+    enum Kind {
+        MANY_TO_ONE, ONE_TO_MANY
+    }
+
+    /**
+     * Extracts the associations from a field map, keyed by property, failing fast on malformed specs.
+     */
+    static Map<String, Association> parseAll(Map<String, String> fields, String ownerEntity) {
+        Map<String, Association> associations = new LinkedHashMap<>();
+        fields.forEach((property, spec) -> {
+            if (spec.contains(":")) {
+                associations.put(property, parse(property, spec, ownerEntity));
+            }
+        });
+        return associations;
+    }
+
+    /**
+     * Returns the plain column fields, i.e. the field map without association entries.
+     */
+    static Map<String, String> columns(Map<String, String> fields) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        fields.forEach((property, type) -> {
+            if (!type.contains(":")) {
+                columns.put(property, type);
+            }
+        });
+        return columns;
+    }
+
+    static Association parse(String property, String spec, String ownerEntity) {
+        List<String> parts = List.of(spec.strip().split("\\s*:\\s*"));
+        String kind = parts.get(0).toLowerCase(Locale.ROOT);
+        String target = parts.size() > 1 ? parts.get(1) : "";
+        if (!SourceVersion.isIdentifier(target) || SourceVersion.isKeyword(target)) {
+            throw new IllegalArgumentException("Invalid association target for field " + property + ": " + spec);
+        }
+        if (kind.equals("manytoone") && parts.size() == 2) {
+            return new Association(property, Kind.MANY_TO_ONE, target, null);
+        }
+        if (kind.equals("onetomany") && parts.size() <= 3) {
+            String mappedBy = parts.size() == 3 ? parts.get(2) : uncapitalize(ownerEntity);
+            return new Association(property, Kind.ONE_TO_MANY, target, mappedBy);
+        }
+        throw new IllegalArgumentException("Unsupported association for field " + property + ": " + spec
+                + " (expected ManyToOne:Target or OneToMany:Target[:mappedBy])");
+    }
+
+    boolean isToOne() {
+        return kind == Kind.MANY_TO_ONE;
+    }
+
+    String targetEntity() {
+        return target + "Entity";
+    }
+
+    String targetPackage(String basePackage) {
+        return basePackage + "." + target.toLowerCase(Locale.ROOT);
+    }
+
+    String targetTable() {
+        return target.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * DTO property exposing the foreign key of a {@code ManyToOne}, e.g. {@code customerId}.
+     */
+    String idProperty() {
+        return property + "Id";
+    }
+
+    String joinColumn() {
+        return SchemaMigrationGenerator.toSnakeCase(idProperty());
+    }
+
+    String capitalizedProperty() {
+        return Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    }
+
+    private static String uncapitalize(String value) {
+        return Character.toLowerCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,222 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * Writes the container build for bootstrapped projects: a multi-stage Dockerfile that splits the Spring Boot jar
+ * into layers and ships an AppCDS archive recorded during a training start, an entrypoint that derives heap size
+ * and garbage collector from the container memory limit, and a script measuring startup time and RSS.
+ */
+class ContainerImageGenerator {
+
+    /**
+     * Profile the training run starts with: no reachable database is needed, so the archive can be built in
+     * {@code docker build}.
+     */
+    static final String TRAINING_PROFILE_YML = """
+            # Starts the context without a reachable database. Used for the AppCDS training run in the Dockerfile and by
+            # scripts/measure-startup.sh; never activate it for a real deployment.
+            spring:
+              flyway:
+                enabled: false
+              liquibase:
+                enabled: false
+              jpa:
+                hibernate:
+                  ddl-auto: none
+                properties:
+                  hibernate:
+                    boot:
+                      allow_jdbc_metadata_access: false
+            """;
+
+    void generate(Path projectRoot) throws IOException {
+        WorkspaceManager.writeString(projectRoot, projectRoot.resolve("Dockerfile"), dockerfile());
+        WorkspaceManager.writeString(projectRoot, projectRoot.resolve(".dockerignore"), dockerignore());
+        WorkspaceManager.writeString(projectRoot, projectRoot.resolve("src/main/resources/application-training.yml"),
+                TRAINING_PROFILE_YML);
+        writeScript(projectRoot, projectRoot.resolve("docker/entrypoint.sh"), entrypoint());
+        writeScript(projectRoot, projectRoot.resolve("scripts/measure-startup.sh"), measureStartupScript());
+    }
+
+    private void writeScript(Path projectRoot, Path path, String content) throws IOException {
+        WorkspaceManager.writeString(projectRoot, path, content);
+        if (Files.getFileStore(path).supportsFileAttributeView("posix")) {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rwxr-xr-x"));
+        }
+    }
+
+    private String dockerfile() {
+        return """
+                # syntax=docker/dockerfile:1
+                # Build: compile with Maven, reusing the local repository between builds through a cache mount.
+                FROM maven:3.9-eclipse-temurin-17 AS build
+                WORKDIR /build
+                COPY pom.xml .
+                COPY src src
+                RUN --mount=type=cache,target=/root/.m2 mvn -B -q package -DskipTests && cp target/*.jar application.jar
+
+                # Extract: split the Spring Boot jar into layers ordered from least to most frequently changing.
+                FROM eclipse-temurin:17-jre AS extract
+                WORKDIR /extract
+                COPY --from=build /build/application.jar .
+                RUN java -Djarmode=tools -jar application.jar extract --layers --destination layers
+
+                # Runtime: a code change only rebuilds the application layer and the CDS archive on top of it.
+                FROM eclipse-temurin:17-jre
+                RUN groupadd --system app && useradd --system --gid app --no-create-home app
+                COPY --chmod=755 docker/entrypoint.sh /usr/local/bin/entrypoint.sh
+                WORKDIR /application
+                COPY --from=extract /extract/layers/dependencies/ ./
+                COPY --from=extract /extract/layers/spring-boot-loader/ ./
+                COPY --from=extract /extract/layers/snapshot-dependencies/ ./
+                COPY --from=extract /extract/layers/application/ ./
+                # AppCDS training run: start the context without a database (training profile), exit once it is refreshed
+                # and archive every class loaded so far. The archive must be created by the same JVM and classpath that use it.
+                RUN java -XX:ArchiveClassesAtExit=application.jsa -Xlog:cds=error -Dspring.context.exit=onRefresh \\
+                        -Dspring.profiles.active=training -jar application.jar
+                USER app
+                EXPOSE 8080
+                ENTRYPOINT ["entrypoint.sh"]
+                """;
+    }
+
+    private String dockerignore() {
+        return """
+                target/
+                .git/
+                .idea/
+                *.iml
+                """;
+    }
+
+    private String entrypoint() {
+        return """
+                #!/bin/sh
+                # Starts the application with JVM flags derived from the container's memory limit.
+                #   JAVA_MAX_RAM_PERCENTAGE  share of the container memory used for the heap (default 75)
+                #   JAVA_GC                  force a collector, e.g. G1GC; by default chosen from the resulting heap size
+                #   CDS_ENABLED              set to false to start without the AppCDS archive
+                #   JAVA_OPTS                additional JVM options
+                set -eu
+
+                ram_percentage="${JAVA_MAX_RAM_PERCENTAGE:-75}"
+
+                memory_limit_bytes() {
+                    if [ -r /sys/fs/cgroup/memory.max ]; then
+                        limit=$(cat /sys/fs/cgroup/memory.max)
+                    elif [ -r /sys/fs/cgroup/memory/memory.limit_in_bytes ]; then
+                        limit=$(cat /sys/fs/cgroup/memory/memory.limit_in_bytes)
+                    else
+                        limit=max
+                    fi
+                    # No limit: cgroup v2 reports "max", v1 a value close to Long.MAX_VALUE. Use the host memory instead.
+                    if [ "$limit" = "max" ] || [ "$limit" -ge 4611686018427387904 ]; then
+                        limit=$(awk '/^MemTotal:/ { printf "%.0f", $2 * 1024 }' /proc/meminfo)
+                    fi
+                    echo "$limit"
+                }
+
+                heap_mb=$(( $(memory_limit_bytes) / 1048576 * ram_percentage / 100 ))
+
+                # Small heaps (below a chosen 1792MB): Serial has the lowest footprint and its pauses stay short.
+                # This is a heap-size cut-off, not the JVM's server-class heuristic, which looks at CPUs and physical RAM.
+                # Medium heaps: G1 balances throughput and pause times. Large heaps: ZGC keeps pauses independent of heap size.
+                if [ -n "${JAVA_GC:-}" ]; then
+                    gc="$JAVA_GC"
+                elif [ "$heap_mb" -lt 1792 ]; then
+                    gc=SerialGC
+                elif [ "$heap_mb" -lt 16384 ]; then
+                    gc=G1GC
+                else
+                    gc=ZGC
+                fi
+
+                cds=""
+                if [ "${CDS_ENABLED:-true}" != "false" ] && [ -f application.jsa ]; then
+                    # Falls back to a normal start if the archive does not match, e.g. ZGC runs without compressed oops.
+                    cds="-XX:SharedArchiveFile=application.jsa -Xshare:auto"
+                fi
+
+                echo "Starting with heap ${heap_mb}MB (${ram_percentage}% of container memory), ${gc}${cds:+, AppCDS}"
+                # shellcheck disable=SC2086
+                exec java \\
+                    -XX:MaxRAMPercentage="$ram_percentage" \\
+                    -XX:+Use"$gc" \\
+                    -XX:+ExitOnOutOfMemoryError \\
+                    $cds \\
+                    ${JAVA_OPTS:-} \\
+                    -jar application.jar "$@"
+                """;
+    }
+
+    private String measureStartupScript() {
+        return """
+                #!/usr/bin/env bash
+                # Measures cold-start time and resident memory of the container image, with and without the AppCDS archive.
+                # Usage: scripts/measure-startup.sh [runs]
+                #   IMAGE            image to measure (default: <project folder>:latest)
+                #   MEMORY           container memory limit (default 512m)
+                #   SKIP_BUILD=1     measure an existing image instead of building it first
+                #   DOCKER_RUN_ARGS  extra docker run arguments, e.g. "-e SPRING_DATASOURCE_URL=... -e SPRING_PROFILES_ACTIVE=default"
+                #                    to measure against a real database; by default the database-free training profile is used
+                set -euo pipefail
+
+                cd "$(dirname "$0")/.."
+                image="${IMAGE:-$(basename "$PWD" | tr '[:upper:]' '[:lower:]'):latest}"
+                runs="${1:-5}"
+                memory="${MEMORY:-512m}"
+                timeout_seconds=120
+                container=""
+
+                cleanup() {
+                    if [ -n "$container" ]; then
+                        docker rm -f "$container" >/dev/null 2>&1 || true
+                    fi
+                }
+                trap cleanup EXIT
+
+                if [ "${SKIP_BUILD:-0}" != "1" ]; then
+                    docker build -t "$image" .
+                fi
+
+                # Starts the image once and sets jvm_seconds, ready_ms and rss_mb.
+                measure_once() {
+                    local cds="$1" started
+                    # shellcheck disable=SC2086
+                    container=$(docker run -d --memory "$memory" -e SPRING_PROFILES_ACTIVE=training -e CDS_ENABLED="$cds" \\
+                        ${DOCKER_RUN_ARGS:-} "$image")
+                    started=$(date +%s%N)
+                    until docker logs "$container" 2>&1 | grep -q "Started .* in .* seconds"; do
+                        if [ "$(docker inspect -f '{{.State.Running}}' "$container")" != "true" ] \\
+                                || [ $(( ($(date +%s%N) - started) / 1000000000 )) -ge "$timeout_seconds" ]; then
+                            echo "Container did not start:" >&2
+                            docker logs "$container" >&2
+                            exit 1
+                        fi
+                        sleep 0.05
+                    done
+                    ready_ms=$(( ($(date +%s%N) - started) / 1000000 ))
+                    jvm_seconds=$(docker logs "$container" 2>&1 | sed -n 's/.*process running for \\([0-9.]*\\).*/\\1/p' | head -n 1)
+                    rss_mb=$(( $(docker exec "$container" awk '/^VmRSS:/ { print $2 }' /proc/1/status) / 1024 ))
+                    docker rm -f "$container" >/dev/null
+                    container=""
+                }
+
+                printf '%-8s %4s %14s %10s %8s\\n' "appcds" "run" "jvm-start(s)" "ready(ms)" "rss(MB)"
+                for cds in true false; do
+                    results=()
+                    for run in $(seq "$runs"); do
+                        measure_once "$cds"
+                        printf '%-8s %4d %14s %10d %8d\\n' "$cds" "$run" "$jvm_seconds" "$ready_ms" "$rss_mb"
+                        results+=("$jvm_seconds $ready_ms $rss_mb")
+                    done
+                    printf '%s\\n' "${results[@]}" | awk -v cds="$cds" \\
+                        '{ jvm += $1; ready += $2; rss += $3 } END { printf "%-8s %4s %14.3f %10d %8d\\n", cds, "avg", jvm / NR, ready / NR, rss / NR }'
+                done
+                """;
+    }
+}
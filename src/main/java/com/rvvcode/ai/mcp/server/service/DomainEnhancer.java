@@ -1,48 +1,66 @@
 package com.rvvcode.ai.mcp.server.service;
 
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.rvvcode.ai.mcp.server.dto.JobStatus.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
 
+import javax.lang.model.SourceVersion;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DomainEnhancer {
 
     private static final Logger log = LoggerFactory.getLogger(DomainEnhancer.class);
 
+    private final SchemaMigrationGenerator migrationGenerator = new SchemaMigrationGenerator();
+    private final WorkspaceManager workspaceManager;
+    private final JobManager jobManager;
+
+    public DomainEnhancer(WorkspaceManager workspaceManager, JobManager jobManager) {
+        this.workspaceManager = workspaceManager;
+        this.jobManager = jobManager;
+    }
+
     @Tool(name = "enhance_domain", description = "Create or update @Entity, MapStruct mapper, repository methods, service, and controller using package-by-feature")
     public String enhanceDomain(
             @ToolParam(description = "Entity name, e.g. Customer") String entityName,
-            @ToolParam(description = "Field map in format fieldName:JavaType") Map<String, String> fields,
-            @ToolParam(description = "Repository methods signatures, e.g. Optional<CustomerEntity> findByEmail(String email)") List<String> repositoryMethods) {
+            @ToolParam(description = "Field map in format fieldName:JavaType; associations as ManyToOne:Target or OneToMany:Target[:mappedBy]") Map<String, String> fields,
+            @ToolParam(description = "Repository methods signatures, e.g. Optional<CustomerEntity> findByEmail(String email)") List<String> repositoryMethods,
+            @ToolParam(description = "Schema migration tool for the generated DDL and indexes: flyway (default) or liquibase", required = false) String migrationTool,
+            @ToolParam(description = "Generate a constant-memory NDJSON bulk export endpoint (GET /export) backed by a streaming repository query", required = false) Boolean streamingExport,
+            @ToolParam(description = "Project root to enhance, relative to the workspace sandbox; defaults to the sandbox itself", required = false) String workspaceRoot,
+            @ToolParam(description = "Run as a background job and return its ID immediately; poll job_status for the result", required = false) Boolean async,
+            ToolContext toolContext) {
         log.info("Entering enhanceDomain entityName={}", entityName);
         try {
-            Path projectRoot = Paths.get(System.getProperty("user.dir"));
-            String basePackage = resolveBasePackage(projectRoot);
-            String featureName = entityName.toLowerCase();
-
-            Path featureDir = projectRoot.resolve("src/main/java")
-                    .resolve(basePackage.replace('.', '/'))
-                    .resolve(featureName);
-            Files.createDirectories(featureDir);
-
-            writeFile(featureDir.resolve(entityName + "Entity.java"), entityContent(basePackage, featureName, entityName, fields));
-            writeFile(featureDir.resolve(entityName + "Dto.java"), dtoContent(basePackage, featureName, entityName, fields));
-            writeFile(featureDir.resolve(entityName + "Mapper.java"), mapperContent(basePackage, featureName, entityName));
-            writeFile(featureDir.resolve(entityName + "Repository.java"), repositoryContent(basePackage, featureName, entityName, repositoryMethods));
-            writeFile(featureDir.resolve(entityName + "Service.java"), serviceContent(basePackage, featureName, entityName));
-            writeFile(featureDir.resolve(entityName + "Controller.java"), controllerContent(basePackage, featureName, entityName));
-
-            return "Enhanced domain for " + entityName + " at " + featureDir;
+            if (entityName == null || !SourceVersion.isIdentifier(entityName) || SourceVersion.isKeyword(entityName)) {
+                throw new IllegalArgumentException("Invalid entity name: " + entityName);
+            }
+            List<MethodDeclaration> finders = SchemaMigrationGenerator.parseRepositoryMethods(repositoryMethods);
+            Map<String, Association> associations = Association.parseAll(fields, entityName);
+            Map<String, String> columns = Association.columns(fields);
+            boolean streaming = Boolean.TRUE.equals(streamingExport);
+            JobManager.JobTask task = progress -> workspaceManager.withProject(workspaceRoot,
+                    projectRoot -> enhance(projectRoot, entityName, columns, associations, finders, migrationTool, streaming, progress));
+            if (Boolean.TRUE.equals(async)) {
+                return jobManager.submit("enhance_domain", Priority.NORMAL, toolContext, task).summary();
+            }
+            return task.run(JobProgress.NONE);
         } catch (Exception ex) {
             log.error("Failed to enhance domain", ex);
             return "Failed to enhance domain: " + ex.getMessage();
@@ -51,9 +69,48 @@ public class DomainEnhancer {
         }
     }
 
-    private void writeFile(Path path, String content) throws IOException {
-        Files.createDirectories(path.getParent());
-        Files.writeString(path, content);
+    private String enhance(Path projectRoot, String entityName, Map<String, String> columns, Map<String, Association> associations,
+                           List<MethodDeclaration> finders, String migrationTool, boolean streaming,
+                           JobProgress progress) throws IOException {
+        // Checked up front so that an unusable migration tool leaves no half-written feature behind.
+        String tool = migrationGenerator.migrationTool(projectRoot, migrationTool);
+        progress.step(0, 3, "Writing " + entityName + " feature sources");
+        String basePackage = resolveBasePackage(projectRoot);
+        String featureName = entityName.toLowerCase();
+
+        Path featureDir = projectRoot.resolve("src/main/java")
+                .resolve(basePackage.replace('.', '/'))
+                .resolve(featureName);
+        WorkspaceManager.createDirectories(projectRoot, featureDir);
+
+        writeFile(projectRoot, featureDir.resolve(entityName + "Entity.java"), entityContent(basePackage, featureName, entityName, columns, associations));
+        writeFile(projectRoot, featureDir.resolve(entityName + "Dto.java"), dtoContent(basePackage, featureName, entityName, columns, associations));
+        writeFile(projectRoot, featureDir.resolve(entityName + "Mapper.java"), mapperContent(basePackage, featureName, entityName, associations));
+        writeFile(projectRoot, featureDir.resolve(entityName + "Repository.java"),
+                repositoryContent(basePackage, featureName, entityName, finders, streaming, associations));
+        writeFile(projectRoot, featureDir.resolve(entityName + "Service.java"), serviceContent(basePackage, featureName, entityName, streaming));
+        writeFile(projectRoot, featureDir.resolve(entityName + "Controller.java"), controllerContent(basePackage, featureName, entityName, streaming));
+        progress.step(1, 3, "Writing " + entityName + " tests");
+        Path testDir = projectRoot.resolve("src/test/java").resolve(basePackage.replace('.', '/')).resolve(featureName);
+        if (streaming) {
+            writeFile(projectRoot, testDir.resolve(entityName + "ExportStreamingTest.java"),
+                    exportStreamingTestContent(basePackage, featureName, entityName, columns));
+        }
+        if (!associations.isEmpty()) {
+            writeFile(projectRoot, testDir.resolve(entityName + "QueryCountTest.java"),
+                    queryCountTestContent(basePackage, featureName, entityName, associations));
+        }
+
+        progress.step(2, 3, "Writing schema migration");
+        Optional<Path> migration = migrationGenerator.generate(projectRoot, entityName, columns, associations.values(),
+                finders, tool);
+
+        return "Enhanced domain for " + entityName + " at " + featureDir
+                + migration.map(path -> "\nSchema migration: " + path).orElse("\nSchema migration: up to date");
+    }
+
+    private void writeFile(Path projectRoot, Path path, String content) throws IOException {
+        WorkspaceManager.writeString(projectRoot, path, content);
     }
 
     private String resolveBasePackage(Path projectRoot) throws IOException {
@@ -66,32 +123,66 @@ public class DomainEnhancer {
         }
     }
 
-    private String entityContent(String basePackage, String featureName, String entityName, Map<String, String> fields) {
+    private String entityContent(String basePackage, String featureName, String entityName, Map<String, String> fields,
+                                 Map<String, Association> associations) {
         String fieldText = fields.entrySet().stream()
                 .map(entry -> "    private " + entry.getValue() + " " + entry.getKey() + ";")
                 .collect(Collectors.joining("\n"));
+        String associationText = associations.values().stream()
+                .map(association -> association.isToOne() ? """
+
+                            @ManyToOne(fetch = FetchType.LAZY)
+                            @JoinColumn(name = "%s")
+                            private %s %s;\
+                        """.formatted(association.joinColumn(), association.targetEntity(), association.property()) : """
+
+                            // Loaded on access in batches (see @BatchSize), or eagerly via the repository's @EntityGraph finder.
+                            @OneToMany(mappedBy = "%s", fetch = FetchType.LAZY)
+                            @BatchSize(size = ASSOCIATION_BATCH_SIZE)
+                            private List<%s> %s = new ArrayList<>();\
+                        """.formatted(association.mappedBy(), association.targetEntity(), association.property()))
+                .map(text -> "\n" + text)
+                .collect(Collectors.joining());
+        boolean hasCollections = associations.values().stream().anyMatch(association -> !association.isToOne());
         return """
                 package %s.%s;
 
-                import jakarta.persistence.*;
-
+                %simport jakarta.persistence.*;
+                %s
                 @Entity
                 @Table(name = "%s")
                 public class %sEntity {
-
+                %s
                     @Id
                     @GeneratedValue(strategy = GenerationType.IDENTITY)
                     private Long id;
 
-                %s
+                    @Version
+                    private Long version;
+
+                %s%s
 
                     public Long getId() { return id; }
                     public void setId(Long id) { this.id = id; }
+
+                    public Long getVersion() { return version; }
+                    public void setVersion(Long version) { this.version = version; }
+                %s%s
                 }
-                """.formatted(basePackage, featureName, entityName.toUpperCase(), entityName, fieldText);
+                """.formatted(basePackage, featureName, targetImports(basePackage, featureName, associations.values()),
+                hasCollections ? "import org.hibernate.annotations.BatchSize;\n\nimport java.util.ArrayList;\nimport java.util.List;\n" : "",
+                entityName.toUpperCase(), entityName,
+                hasCollections ? "\n    static final int ASSOCIATION_BATCH_SIZE = 50;\n" : "",
+                fieldText, associationText, accessors(fields), accessors(associationTypes(associations)));
     }
 
-    private String dtoContent(String basePackage, String featureName, String entityName, Map<String, String> fields) {
+    private String dtoContent(String basePackage, String featureName, String entityName, Map<String, String> columns,
+                              Map<String, Association> associations) {
+        // Collections are not part of the DTO and to-one associations only expose their id, which Hibernate
+        // reads from the uninitialized proxy, so mapping a list never triggers lazy loading.
+        Map<String, String> fields = new LinkedHashMap<>(columns);
+        associations.values().stream().filter(Association::isToOne)
+                .forEach(association -> fields.put(association.idProperty(), "Long"));
         String fieldText = fields.entrySet().stream()
                 .map(entry -> "    private " + entry.getValue() + " " + entry.getKey() + ";")
                 .collect(Collectors.joining("\n"));
@@ -101,105 +192,574 @@ public class DomainEnhancer {
                 public class %sDto {
 
                     private Long id;
+                    private Long version;
                 %s
 
                     public Long getId() { return id; }
                     public void setId(Long id) { this.id = id; }
+
+                    public Long getVersion() { return version; }
+                    public void setVersion(Long version) { this.version = version; }
+                %s
                 }
-                """.formatted(basePackage, featureName, entityName, fieldText);
+                """.formatted(basePackage, featureName, entityName, fieldText, accessors(fields));
+    }
+
+    private String accessors(Map<String, String> fields) {
+        return fields.entrySet().stream()
+                .map(entry -> {
+                    String property = Character.toUpperCase(entry.getKey().charAt(0)) + entry.getKey().substring(1);
+                    return """
+
+                                public %2$s get%3$s() { return %1$s; }
+                                public void set%3$s(%2$s %1$s) { this.%1$s = %1$s; }\
+                            """.formatted(entry.getKey(), entry.getValue(), property);
+                })
+                .collect(Collectors.joining());
     }
 
-    private String mapperContent(String basePackage, String featureName, String entityName) {
+    private String mapperContent(String basePackage, String featureName, String entityName, Map<String, Association> associations) {
+        String idMappings = associations.values().stream()
+                .filter(Association::isToOne)
+                .map(association -> "    @Mapping(target = \"%s\", source = \"%s.id\")\n".formatted(association.idProperty(), association.property()))
+                .collect(Collectors.joining());
         return """
-                package %s.%s;
+                package %1$s.%2$s;
 
                 import org.mapstruct.Mapper;
-                import org.mapstruct.ReportingPolicy;
+                %4$simport org.mapstruct.ReportingPolicy;
 
                 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
-                public interface %sMapper {
+                public interface %3$sMapper {
 
-                    %sDto toDto(%sEntity entity);
+                %5$s    %3$sDto toDto(%3$sEntity entity);
 
-                    %sEntity toEntity(%sDto dto);
+                    %3$sEntity toEntity(%3$sDto dto);
                 }
-                """.formatted(basePackage, featureName, entityName, entityName, entityName, entityName, entityName);
+                """.formatted(basePackage, featureName, entityName, idMappings.isEmpty() ? "" : "import org.mapstruct.Mapping;\n", idMappings);
     }
 
-    private String repositoryContent(String basePackage, String featureName, String entityName, List<String> methods) {
-        String methodText = methods == null ? "" : methods.stream().map(m -> "    " + m + ";").collect(Collectors.joining("\n"));
+    private String repositoryContent(String basePackage, String featureName, String entityName, List<MethodDeclaration> methods,
+                                     boolean streaming, Map<String, Association> associations) {
+        String methodText = methods.stream()
+                .map(method -> method.toString().lines().map(line -> "    " + line).collect(Collectors.joining("\n")))
+                .collect(Collectors.joining("\n\n"));
+        String streamingMethod = streaming ? """
+
+                    /**
+                     * Forward-only cursor for bulk exports: rows are fetched in batches and never become managed
+                     * for dirty checking. Must be consumed inside a transaction and closed.
+                     */
+                    @QueryHints({
+                            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+                            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")})
+                    @Query("select e from %sEntity e order by e.id")
+                    Stream<%sEntity> streamAll();
+                """.formatted(entityName, entityName) : "";
+        String graphFinders = entityGraphFinders(entityName, associations.values());
         return """
-                package %s.%s;
+                package %1$s.%2$s;
+
+                %5$s%8$simport org.springframework.data.jpa.repository.JpaRepository;
+                import org.springframework.data.jpa.repository.Query;
+                %6$simport org.springframework.data.repository.query.Param;
+
+                %9$simport java.util.Optional;
+                %7$s
+                public interface %3$sRepository extends JpaRepository<%3$sEntity, Long> {
+
+                    // Reads id and version of every row, because the list endpoint returns the whole table. On large
+                    // tables this costs about as much I/O as the list query; a 304 then only saves mapping and transfer.
+                    // Once the endpoint is paged or filtered, give this query the same where clause and page bounds.
+                    @Query("select concat(str(count(e)), '-', str(coalesce(sum(e.version), 0)), '-', str(coalesce(max(e.id), 0))) from %3$sEntity e")
+                    String collectionVersion();
+
+                    @Query("select e.version from %3$sEntity e where e.id = :id")
+                    Optional<Long> findVersionById(@Param("id") Long id);
+                %4$s}
+                """.formatted(basePackage, featureName, entityName, Stream.of(graphFinders, streamingMethod, methodText)
+                        .map(String::strip)
+                        .filter(block -> !block.isEmpty())
+                        .map(block -> "\n    " + block + "\n")
+                        .collect(Collectors.joining()),
+                streaming ? "import jakarta.persistence.QueryHint;\nimport org.hibernate.jpa.HibernateHints;\n" : "",
+                streaming ? "import org.springframework.data.jpa.repository.QueryHints;\n" : "",
+                streaming ? "import java.util.stream.Stream;\n" : "",
+                graphFinders.isEmpty() ? "" : "import org.springframework.data.jpa.repository.EntityGraph;\n",
+                graphFinders.isEmpty() ? "" : "import java.util.List;\n");
+    }
+
+    /**
+     * One finder fetching all to-one associations for lists, and one per collection for single-row reads.
+     * Collections get separate finders because fetching several bags at once is rejected by Hibernate and
+     * would multiply rows even if it were not.
+     */
+    private String entityGraphFinders(String entityName, Collection<Association> associations) {
+        List<Association> toOne = associations.stream().filter(Association::isToOne).toList();
+        StringBuilder finders = new StringBuilder();
+        if (!toOne.isEmpty()) {
+            finders.append("""
+
+                        @EntityGraph(attributePaths = {%s})
+                        List<%sEntity> findAllWith%sBy();
+                    """.formatted(toOne.stream().map(association -> "\"" + association.property() + "\"").collect(Collectors.joining(", ")),
+                    entityName, toOne.stream().map(Association::capitalizedProperty).collect(Collectors.joining("And"))));
+        }
+        associations.stream().filter(association -> !association.isToOne()).forEach(association -> finders.append("""
 
-                import org.springframework.data.jpa.repository.JpaRepository;
+                    @EntityGraph(attributePaths = {"%s"})
+                    Optional<%sEntity> findWith%sById(Long id);
+                """.formatted(association.property(), entityName, association.capitalizedProperty())));
+        return finders.toString();
+    }
 
-                public interface %sRepository extends JpaRepository<%sEntity, Long> {
-                %s
-                }
-                """.formatted(basePackage, featureName, entityName, entityName, methodText);
+    private String targetImports(String basePackage, String featureName, Collection<Association> associations) {
+        String imports = associations.stream()
+                .filter(association -> !association.targetPackage(basePackage).equals(basePackage + "." + featureName))
+                .map(association -> "import " + association.targetPackage(basePackage) + "." + association.targetEntity() + ";\n")
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining());
+        return imports;
     }
 
-    private String serviceContent(String basePackage, String featureName, String entityName) {
+    private Map<String, String> associationTypes(Map<String, Association> associations) {
+        Map<String, String> types = new LinkedHashMap<>();
+        associations.values().forEach(association -> types.put(association.property(),
+                association.isToOne() ? association.targetEntity() : "List<" + association.targetEntity() + ">"));
+        return types;
+    }
+
+    private String serviceContent(String basePackage, String featureName, String entityName, boolean streaming) {
+        String exportMethod = streaming ? """
+
+                    /**
+                     * Writes every row as one JSON line. Entities are mapped and detached one at a time, so memory
+                     * stays constant no matter how many rows are exported.
+                     */
+                    @Transactional(readOnly = true)
+                    public long exportNdjson(OutputStream out) throws IOException {
+                        log.info("Entering %1$sService.exportNdjson");
+                        long count = 0;
+                        try (Stream<%1$sEntity> entities = repository.streamAll()) {
+                            Iterator<%1$sEntity> iterator = entities.iterator();
+                            while (iterator.hasNext()) {
+                                %1$sEntity entity = iterator.next();
+                                out.write(dtoWriter.writeValueAsBytes(mapper.toDto(entity)));
+                                out.write('\\n');
+                                entityManager.detach(entity);
+                                if (++count %% EXPORT_FLUSH_INTERVAL == 0) {
+                                    out.flush();
+                                }
+                            }
+                        }
+                        out.flush();
+                        log.info("Exiting %1$sService.exportNdjson count={}", count);
+                        return count;
+                    }
+                """.formatted(entityName) : "";
         return """
-                package %s.%s;
+                package %1$s.%2$s;
 
-                import org.slf4j.Logger;
+                %4$simport org.slf4j.Logger;
                 import org.slf4j.LoggerFactory;
                 import org.springframework.stereotype.Service;
                 import org.springframework.transaction.annotation.Transactional;
 
-                import java.util.List;
-
+                %5$simport java.util.List;
+                import java.util.Optional;
+                %6$s
                 @Service
                 @Transactional
-                public class %sService {
+                public class %3$sService {
 
-                    private static final Logger log = LoggerFactory.getLogger(%sService.class);
-                    private final %sRepository repository;
-                    private final %sMapper mapper;
-
-                    public %sService(%sRepository repository, %sMapper mapper) {
+                    private static final Logger log = LoggerFactory.getLogger(%3$sService.class);
+                %7$s    private final %3$sRepository repository;
+                    private final %3$sMapper mapper;
+                %8$s
+                    public %3$sService(%3$sRepository repository, %3$sMapper mapper%9$s) {
                         this.repository = repository;
                         this.mapper = mapper;
-                    }
+                %10$s    }
 
                     @Transactional(readOnly = true)
-                    public List<%sDto> findAll() {
-                        log.info("Entering %sService.findAll");
-                        List<%sDto> result = repository.findAll().stream().map(mapper::toDto).toList();
-                        log.info("Exiting %sService.findAll size={}", result.size());
+                    public List<%3$sDto> findAll() {
+                        log.info("Entering %3$sService.findAll");
+                        List<%3$sDto> result = repository.findAll().stream().map(mapper::toDto).toList();
+                        log.info("Exiting %3$sService.findAll size={}", result.size());
                         return result;
                     }
-                }
-                """.formatted(basePackage, featureName, entityName, entityName, entityName, entityName, entityName,
-                entityName, entityName, entityName, entityName, entityName, entityName);
+
+                    @Transactional(readOnly = true)
+                    public Optional<%3$sDto> findById(Long id) {
+                        return repository.findById(id).map(mapper::toDto);
+                    }
+
+                    /**
+                     * Validator for the whole collection derived from row count, version sum and highest id,
+                     * so conditional GETs are answered without loading or mapping any entities. The aggregate
+                     * still visits every row; see {@link %3$sRepository#collectionVersion()}.
+                     */
+                    @Transactional(readOnly = true)
+                    public String collectionVersion() {
+                        return repository.collectionVersion();
+                    }
+
+                    @Transactional(readOnly = true)
+                    public Optional<Long> findVersionById(Long id) {
+                        return repository.findVersionById(id);
+                    }
+                %11$s}
+                """.formatted(basePackage, featureName, entityName,
+                streaming ? "import com.fasterxml.jackson.databind.ObjectMapper;\nimport com.fasterxml.jackson.databind.ObjectWriter;\nimport jakarta.persistence.EntityManager;\n" : "",
+                streaming ? "import java.io.IOException;\nimport java.io.OutputStream;\nimport java.util.Iterator;\n" : "",
+                streaming ? "import java.util.stream.Stream;\n" : "",
+                streaming ? "    private static final int EXPORT_FLUSH_INTERVAL = 1_000;\n" : "",
+                streaming ? "    private final EntityManager entityManager;\n    private final ObjectWriter dtoWriter;\n" : "",
+                streaming ? ", EntityManager entityManager, ObjectMapper objectMapper" : "",
+                streaming ? "        this.entityManager = entityManager;\n        this.dtoWriter = objectMapper.writerFor(%sDto.class);\n".formatted(entityName) : "",
+                exportMethod);
     }
 
-    private String controllerContent(String basePackage, String featureName, String entityName) {
+    private String controllerContent(String basePackage, String featureName, String entityName, boolean streaming) {
+        String exportEndpoint = streaming ? """
+
+                    /**
+                     * Bulk export as newline-delimited JSON, streamed from a database cursor on an async thread.
+                     */
+                    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+                    public ResponseEntity<StreamingResponseBody> export() {
+                        StreamingResponseBody body = service::exportNdjson;
+                        return ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .cacheControl(CacheControl.noStore())
+                                .body(body);
+                    }
+                """ : "";
         return """
-                package %s.%s;
+                package %1$s.%2$s;
 
+                import org.springframework.http.CacheControl;
+                import org.springframework.http.HttpStatus;
+                %4$simport org.springframework.http.ResponseEntity;
                 import org.springframework.web.bind.annotation.GetMapping;
+                import org.springframework.web.bind.annotation.PathVariable;
                 import org.springframework.web.bind.annotation.RequestMapping;
                 import org.springframework.web.bind.annotation.RestController;
-
+                import org.springframework.web.context.request.WebRequest;
+                %5$s
+                import java.time.Duration;
                 import java.util.List;
+                import java.util.Optional;
 
                 @RestController
-                @RequestMapping("/api/%ss")
-                public class %sController {
+                @RequestMapping("/api/%2$ss")
+                public class %3$sController {
 
-                    private final %sService service;
+                    // Collections change often: always revalidate. Each revalidation runs an aggregate over the rows
+                    // the list returns, so it pays off in saved mapping and transfer, not in saved table reads.
+                    private static final CacheControl COLLECTION_CACHE = CacheControl.noCache().cachePrivate();
+                    private static final CacheControl ITEM_CACHE = CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate().mustRevalidate();
 
-                    public %sController(%sService service) {
+                    private final %3$sService service;
+
+                    public %3$sController(%3$sService service) {
                         this.service = service;
                     }
 
                     @GetMapping
-                    public List<%sDto> findAll() {
-                        return service.findAll();
+                    public ResponseEntity<List<%3$sDto>> findAll(WebRequest request) {
+                        String etag = service.collectionVersion();
+                        if (request.checkNotModified(etag)) {
+                            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(COLLECTION_CACHE).build();
+                        }
+                        return ResponseEntity.ok().eTag(etag).cacheControl(COLLECTION_CACHE).body(service.findAll());
+                    }
+
+                    @GetMapping("/{id}")
+                    public ResponseEntity<%3$sDto> findById(@PathVariable Long id, WebRequest request) {
+                        Optional<Long> version = service.findVersionById(id);
+                        if (version.isEmpty()) {
+                            return ResponseEntity.notFound().build();
+                        }
+                        if (request.checkNotModified(String.valueOf(version.get()))) {
+                            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(String.valueOf(version.get()))
+                                    .cacheControl(ITEM_CACHE).build();
+                        }
+                        return service.findById(id)
+                                .map(dto -> ResponseEntity.ok().eTag(String.valueOf(dto.getVersion())).cacheControl(ITEM_CACHE).body(dto))
+                                .orElseGet(() -> ResponseEntity.notFound().build());
+                    }
+                %6$s}
+                """.formatted(basePackage, featureName, entityName,
+                streaming ? "import org.springframework.http.MediaType;\n" : "",
+                streaming ? "import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;\n" : "",
+                exportEndpoint);
+    }
+
+    private String exportStreamingTestContent(String basePackage, String featureName, String entityName, Map<String, String> fields) {
+        String columns = Stream.concat(Stream.of("version"), fields.keySet().stream().map(SchemaMigrationGenerator::toSnakeCase))
+                .collect(Collectors.joining(", "));
+        String values = Stream.concat(Stream.of("0"), fields.values().stream().map(this::h2SeedExpression))
+                .collect(Collectors.joining(", "));
+        return """
+                package %1$s.%2$s;
+
+                import org.junit.jupiter.api.BeforeEach;
+                import org.junit.jupiter.api.Test;
+                import org.springframework.beans.factory.annotation.Autowired;
+                import org.springframework.boot.test.context.SpringBootTest;
+                import org.springframework.jdbc.core.JdbcTemplate;
+
+                import java.io.OutputStream;
+                import java.lang.management.ManagementFactory;
+                import java.lang.management.MemoryMXBean;
+
+                import static org.assertj.core.api.Assertions.assertThat;
+
+                /**
+                 * Exports a large H2 dataset and checks that the heap retained during the export stays bounded,
+                 * i.e. rows are streamed rather than collected.
+                 */
+                @SpringBootTest(properties = {
+                        "spring.datasource.url=jdbc:h2:mem:%2$s-export;MODE=Oracle;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.flyway.enabled=false"})
+                class %3$sExportStreamingTest {
+
+                    private static final int ROWS = 200_000;
+                    private static final long MAX_RETAINED_HEAP_GROWTH = 32L * 1024 * 1024;
+
+                    @Autowired
+                    private %3$sService service;
+
+                    @Autowired
+                    private JdbcTemplate jdbcTemplate;
+
+                    @BeforeEach
+                    void seed() {
+                        Long rows = jdbcTemplate.queryForObject("select count(*) from %4$s", Long.class);
+                        if (rows == null || rows != ROWS) {
+                            jdbcTemplate.update("delete from %4$s");
+                            jdbcTemplate.update("insert into %4$s (%5$s) select %6$s from system_range(1, " + ROWS + ")");
+                        }
+                    }
+
+                    @Test
+                    void exportNdjson_shouldStreamLargeDatasetWithBoundedHeap() throws Exception {
+                        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+                        System.gc();
+                        long baseline = memory.getHeapMemoryUsage().getUsed();
+                        RetainedHeapProbe out = new RetainedHeapProbe(memory, ROWS / 10);
+
+                        long exported = service.exportNdjson(out);
+
+                        assertThat(exported).isEqualTo(ROWS);
+                        assertThat(out.lines).isEqualTo(ROWS);
+                        assertThat(out.peakRetainedHeap - baseline).isLessThan(MAX_RETAINED_HEAP_GROWTH);
+                    }
+
+                    /**
+                     * Discards the export while counting lines. Every {@code sampleEvery} lines it forces a GC and records
+                     * the heap still in use, which only grows if exported rows are being retained.
+                     */
+                    private static final class RetainedHeapProbe extends OutputStream {
+
+                        private final MemoryMXBean memory;
+                        private final long sampleEvery;
+                        private long lines;
+                        private long peakRetainedHeap;
+
+                        private RetainedHeapProbe(MemoryMXBean memory, long sampleEvery) {
+                            this.memory = memory;
+                            this.sampleEvery = sampleEvery;
+                        }
+
+                        @Override
+                        public void write(int b) {
+                            if (b == '\\n' && ++lines %% sampleEvery == 0) {
+                                System.gc();
+                                peakRetainedHeap = Math.max(peakRetainedHeap, memory.getHeapMemoryUsage().getUsed());
+                            }
+                        }
+
+                        @Override
+                        public void write(byte[] bytes, int offset, int length) {
+                            for (int i = offset; i < offset + length; i++) {
+                                write(bytes[i]);
+                            }
+                        }
                     }
                 }
-                """.formatted(basePackage, featureName, featureName, entityName, entityName, entityName, entityName);
+                """.formatted(basePackage, featureName, entityName, entityName.toLowerCase(Locale.ROOT), columns, values);
+    }
+
+    private String queryCountTestContent(String basePackage, String featureName, String entityName,
+                                         Map<String, Association> associations) {
+        List<Association> toOne = associations.values().stream().filter(Association::isToOne).toList();
+        List<Association> collections = associations.values().stream().filter(association -> !association.isToOne()).toList();
+        String seedToOne = toOne.stream()
+                .map(association -> """
+                                        %1$s %2$s = new %1$s();
+                                        entityManager.persist(%2$s);
+                                        row.set%3$s(%2$s);
+                    """.formatted(association.targetEntity(), association.property(), association.capitalizedProperty()))
+                .collect(Collectors.joining());
+        String seedCollections = collections.stream()
+                .map(association -> """
+                                        for (int child = 0; child < CHILDREN_PER_ROW; child++) {
+                                            %1$s %2$sItem = new %1$s();
+                                            %2$sItem.set%3$s(row);
+                                            entityManager.persist(%2$sItem);
+                                        }
+                    """.formatted(association.targetEntity(), association.property(),
+                        Character.toUpperCase(association.mappedBy().charAt(0)) + association.mappedBy().substring(1)))
+                .collect(Collectors.joining());
+        StringBuilder tests = new StringBuilder();
+        if (!toOne.isEmpty()) {
+            tests.append("""
+
+                        @Test
+                        void findAllWith%1$sBy_shouldFetchToOneAssociationsInOneStatement() {
+                            List<%2$sEntity> rows = repository.findAllWith%1$sBy();
+
+                            assertThat(rows).hasSizeGreaterThanOrEqualTo(ROWS);
+                            assertThat(rows).allSatisfy(row -> assertThat(%3$s).isTrue());
+                            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+                        }
+                    """.formatted(toOne.stream().map(Association::capitalizedProperty).collect(Collectors.joining("And")), entityName,
+                    toOne.stream().map(association -> "Hibernate.isInitialized(row.get" + association.capitalizedProperty() + "())")
+                            .collect(Collectors.joining(" && "))));
+        }
+        if (!collections.isEmpty()) {
+            tests.append("""
+
+                        @Test
+                        void collections_shouldBeBatchFetchedWhenTraversingAList() {
+                            transactionTemplate.executeWithoutResult(status -> repository.findAll().forEach(row -> {
+                    %3$s        }));
+
+                            // One select for the rows plus one batched select per collection, since ROWS < %2$sEntity.ASSOCIATION_BATCH_SIZE.
+                            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + %1$d);
+                        }
+                    """.formatted(collections.size(), entityName, collections.stream()
+                    .map(association -> "            assertThat(row.get" + association.capitalizedProperty() + "()).hasSize(CHILDREN_PER_ROW);\n")
+                    .collect(Collectors.joining())));
+            collections.forEach(association -> tests.append("""
+
+                        @Test
+                        void findWith%1$sById_shouldFetchCollectionInOneStatement() {
+                            Long id = repository.findAll().get(0).getId();
+                            statistics.clear();
+
+                            %2$sEntity row = repository.findWith%1$sById(id).orElseThrow();
+
+                            assertThat(Hibernate.isInitialized(row.get%1$s())).isTrue();
+                            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+                        }
+                    """.formatted(association.capitalizedProperty(), entityName)));
+        }
+        return """
+                package %1$s.%2$s;
+
+                %4$simport jakarta.persistence.EntityManager;
+                import jakarta.persistence.EntityManagerFactory;
+                import jakarta.persistence.PersistenceContext;
+                import org.hibernate.Hibernate;
+                import org.hibernate.SessionFactory;
+                import org.hibernate.stat.Statistics;
+                import org.junit.jupiter.api.BeforeEach;
+                import org.junit.jupiter.api.Test;
+                import org.springframework.beans.factory.annotation.Autowired;
+                import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+                import org.springframework.boot.test.context.SpringBootTest;
+                import org.springframework.test.web.servlet.MockMvc;
+                import org.springframework.transaction.support.TransactionTemplate;
+                %8$s
+                import static org.assertj.core.api.Assertions.assertThat;
+                import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+                import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+                /**
+                 * Pins the number of SQL statements issued for list reads with Hibernate statistics, so an eager
+                 * association or a lost fetch plan fails here instead of surfacing as N+1 queries in production.
+                 */
+                @SpringBootTest(properties = {
+                        "spring.datasource.url=jdbc:h2:mem:%2$s-query-count;MODE=Oracle;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.flyway.enabled=false"})
+                @AutoConfigureMockMvc
+                class %3$sQueryCountTest {
+
+                    private static final int ROWS = 20;
+                    private static final int CHILDREN_PER_ROW = 2;
+
+                    @Autowired
+                    private MockMvc mockMvc;
+
+                    @Autowired
+                    private %3$sRepository repository;
+
+                    @Autowired
+                    private EntityManagerFactory entityManagerFactory;
+
+                    @Autowired
+                    private TransactionTemplate transactionTemplate;
+
+                    @PersistenceContext
+                    private EntityManager entityManager;
+
+                    private Statistics statistics;
+
+                    @BeforeEach
+                    void seed() {
+                        if (repository.count() == 0) {
+                            transactionTemplate.executeWithoutResult(status -> {
+                                for (int i = 0; i < ROWS; i++) {
+                                    %3$sEntity row = new %3$sEntity();
+                %5$s                    entityManager.persist(row);
+                %6$s                }
+                            });
+                        }
+                        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                        statistics.clear();
+                    }
+
+                    @Test
+                    void listEndpoint_shouldIssueSameNumberOfStatementsRegardlessOfRowCount() throws Exception {
+                        mockMvc.perform(get("/api/%2$ss")).andExpect(status().isOk());
+
+                        // One aggregate for the ETag and one select for the rows; associations are never initialized.
+                        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+                        assertThat(statistics.getEntityLoadCount()).isEqualTo(repository.count());
+                    }
+                %7$s}
+                """.formatted(basePackage, featureName, entityName, targetImports(basePackage, featureName, associations.values()),
+                seedToOne, seedCollections, tests, toOne.isEmpty() ? "" : "\nimport java.util.List;\n");
+    }
+
+    /**
+     * H2 expression producing a distinct, type-compatible value per generated row {@code x}.
+     */
+    private String h2SeedExpression(String javaType) {
+        return switch (javaType.substring(javaType.lastIndexOf('.') + 1).strip()) {
+            case "String" -> "'value-' || x";
+            case "Long", "long", "Integer", "int", "Short", "short", "BigDecimal", "Double", "double", "Float", "float" -> "x";
+            case "Boolean", "boolean" -> "mod(x, 2) = 0";
+            case "LocalDate" -> "current_date";
+            case "LocalDateTime", "Instant", "OffsetDateTime", "ZonedDateTime" -> "current_timestamp";
+            case "UUID" -> "random_uuid()";
+            default -> "null";
+        };
     }
 }
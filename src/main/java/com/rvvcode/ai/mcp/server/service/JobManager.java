@@ -0,0 +1,423 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rvvcode.ai.mcp.server.dto.JobStatus;
+import com.rvvcode.ai.mcp.server.dto.JobStatus.Priority;
+import com.rvvcode.ai.mcp.server.dto.JobStatus.State;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Runs long tool calls in the background so the MCP request thread returns a job ID immediately.
+ * <p>
+ * Jobs run on a fixed pool of workers; waiting jobs are ordered by {@link Priority}, then by submission. At most
+ * {@code mcp.jobs.queue-capacity} jobs may wait, further submissions are rejected. Progress is pushed to the calling
+ * session as MCP log notifications and kept for {@code job_status}. Cancellation is cooperative: a queued job is
+ * dropped, a running job stops at its next {@link JobProgress#step}.
+ * <p>
+ * Finished jobs are kept for {@code mcp.jobs.ttl} and at most {@code mcp.jobs.max-retained} jobs are retained,
+ * oldest finished first out. Expired jobs are also swept in the background every half TTL (between 100 ms and
+ * one minute), so an idle server does not keep them or their stored files. With {@code mcp.jobs.store-dir} set, every state change is also written there as JSON
+ * and reloaded on startup; jobs that were still queued or running are reported as failed, since their work cannot
+ * be resumed.
+ */
+@Component
+public class JobManager implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JobManager.class);
+    private static final String PROGRESS_LOGGER = "mcp.jobs";
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(10);
+    private static final long MIN_SWEEP_MILLIS = 100;
+    private static final long MAX_SWEEP_MILLIS = 60_000;
+
+    @FunctionalInterface
+    public interface JobTask {
+        String run(JobProgress progress) throws Exception;
+    }
+
+    private final int queueCapacity;
+    private final int maxRetainedJobs;
+    private final Duration ttl;
+    private final Path storeDir;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService sweeper;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queuedJobs = new AtomicInteger();
+    // Insertion order doubles as age order for eviction; guarded by this.
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public JobManager(@Value("${mcp.jobs.workers:4}") int workers,
+                      @Value("${mcp.jobs.queue-capacity:64}") int queueCapacity,
+                      @Value("${mcp.jobs.max-retained:1000}") int maxRetainedJobs,
+                      @Value("${mcp.jobs.ttl:1h}") Duration ttl,
+                      @Value("${mcp.jobs.store-dir:}") String storeDir,
+                      ObjectMapper objectMapper) {
+        this.queueCapacity = queueCapacity;
+        this.maxRetainedJobs = maxRetainedJobs;
+        this.ttl = ttl;
+        this.storeDir = storeDir.isBlank() ? null : Path.of(storeDir);
+        this.objectMapper = objectMapper;
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), workerThreadFactory());
+        if (this.storeDir != null) {
+            restore();
+        }
+        long sweepMillis = Math.min(MAX_SWEEP_MILLIS, Math.max(MIN_SWEEP_MILLIS, ttl.toMillis() / 2));
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-job-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        log.info("Job manager started with {} workers, queue capacity {}, store {}", workers, queueCapacity,
+                this.storeDir == null ? "in-memory" : this.storeDir);
+    }
+
+    /**
+     * Queues a job; progress notifications go to the MCP session found in {@code toolContext}, if any.
+     *
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public JobStatus submit(String tool, Priority priority, ToolContext toolContext, JobTask task) {
+        evictExpired();
+        if (queuedJobs.incrementAndGet() > queueCapacity) {
+            queuedJobs.decrementAndGet();
+            throw new RejectedExecutionException("Job queue is full (" + queueCapacity + " jobs waiting), retry later");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), tool, priority, sequence.incrementAndGet(), task, exchange(toolContext));
+        synchronized (this) {
+            jobs.put(job.id, job);
+            evictOverflow();
+        }
+        persist(job.snapshot());
+        workers.execute(job);
+        log.info("Queued job {} for {} with priority {}", job.id, tool, priority);
+        return job.snapshot();
+    }
+
+    public JobStatus status(String jobId) {
+        evictExpired();
+        return find(jobId).snapshot();
+    }
+
+    /**
+     * Requests cancellation. A queued job is cancelled at once; a running job stops at its next progress step.
+     * Finished jobs are returned unchanged.
+     */
+    public JobStatus cancel(String jobId) {
+        Job job = find(jobId);
+        if (workers.remove(job)) {
+            queuedJobs.decrementAndGet();
+            job.finish(State.CANCELLED, null, "Cancelled before start");
+        } else {
+            job.requestCancel();
+        }
+        return job.snapshot();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        sweeper.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(SHUTDOWN_GRACE.toMillis(), TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private synchronized Job find(String jobId) {
+        Job job = jobId == null ? null : jobs.get(jobId.strip());
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown or expired job: " + jobId);
+        }
+        return job;
+    }
+
+    private void sweep() {
+        try {
+            evictExpired();
+        } catch (RuntimeException ex) {
+            // An exception would cancel the schedule; the next sweep retries.
+            log.warn("Could not evict expired jobs: {}", ex.getMessage());
+        }
+    }
+
+    private synchronized void evictExpired() {
+        Instant cutoff = Instant.now().minus(ttl);
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            JobStatus status = iterator.next().snapshot();
+            if (status.state().isTerminal() && status.updatedAt().isBefore(cutoff)) {
+                iterator.remove();
+                deleteStored(status.jobId());
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (jobs.size() > maxRetainedJobs && iterator.hasNext()) {
+            JobStatus status = iterator.next().snapshot();
+            if (status.state().isTerminal()) {
+                iterator.remove();
+                deleteStored(status.jobId());
+            }
+        }
+    }
+
+    private McpSyncServerExchange exchange(ToolContext toolContext) {
+        return toolContext == null ? null : McpToolUtils.getMcpExchange(toolContext).orElse(null);
+    }
+
+    private void notifyProgress(McpSyncServerExchange exchange, JobStatus status) {
+        if (exchange == null) {
+            return;
+        }
+        try {
+            exchange.loggingNotification(McpSchema.LoggingMessageNotification.builder()
+                    .level(McpSchema.LoggingLevel.INFO)
+                    .logger(PROGRESS_LOGGER)
+                    .data(objectMapper.writeValueAsString(status))
+                    .build());
+        } catch (Exception ex) {
+            // A client that went away must not fail the job; the state is still available via job_status.
+            log.warn("Could not send progress notification for job {}: {}", status.jobId(), ex.getMessage());
+        }
+    }
+
+    private void persist(JobStatus status) {
+        if (storeDir == null) {
+            return;
+        }
+        try {
+            Path temp = Files.createTempFile(storeDir, status.jobId(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), status);
+            Files.move(temp, storeDir.resolve(status.jobId() + ".json"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not persist job {}: {}", status.jobId(), ex.getMessage());
+        }
+    }
+
+    private void deleteStored(String jobId) {
+        if (storeDir == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(storeDir.resolve(jobId + ".json"));
+        } catch (IOException ex) {
+            log.warn("Could not delete stored job {}: {}", jobId, ex.getMessage());
+        }
+    }
+
+    private void restore() {
+        List<JobStatus> restored = new ArrayList<>();
+        try {
+            Files.createDirectories(storeDir);
+            try (Stream<Path> files = Files.list(storeDir)) {
+                for (Path file : files.toList()) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".tmp")) {
+                        Files.deleteIfExists(file);
+                    } else if (name.endsWith(".json")) {
+                        restored.add(objectMapper.readValue(file.toFile(), JobStatus.class));
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot restore jobs from " + storeDir, ex);
+        }
+        restored.sort(Comparator.comparing(JobStatus::createdAt));
+        synchronized (this) {
+            for (JobStatus status : restored) {
+                Job job = new Job(status);
+                if (!status.state().isTerminal()) {
+                    job.finish(State.FAILED, null, "Interrupted by server restart");
+                }
+                jobs.put(job.id, job);
+            }
+            evictOverflow();
+        }
+        evictExpired();
+        log.info("Restored {} jobs from {}", restored.size(), storeDir);
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "mcp-job-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Job implements Runnable, Comparable<Job>, JobProgress {
+
+        private final String id;
+        private final String tool;
+        private final Priority priority;
+        private final long sequence;
+        private final Instant createdAt;
+        private final JobTask task;
+        private final McpSyncServerExchange exchange;
+
+        private volatile boolean cancelRequested;
+        // Guarded by this.
+        private State state;
+        private int completedSteps;
+        private int totalSteps;
+        private String message;
+        private String result;
+        private String error;
+        private Instant updatedAt;
+
+        Job(String id, String tool, Priority priority, long sequence, JobTask task, McpSyncServerExchange exchange) {
+            this(id, tool, priority, sequence, task, exchange, Instant.now());
+        }
+
+        Job(JobStatus stored) {
+            this(stored.jobId(), stored.tool(), stored.priority(), 0L, null, null, stored.createdAt());
+            this.state = stored.state();
+            this.completedSteps = stored.completedSteps();
+            this.totalSteps = stored.totalSteps();
+            this.message = stored.message();
+            this.result = stored.result();
+            this.error = stored.error();
+            this.updatedAt = stored.updatedAt();
+        }
+
+        private Job(String id, String tool, Priority priority, long sequence, JobTask task, McpSyncServerExchange exchange,
+                    Instant createdAt) {
+            this.id = id;
+            this.tool = tool;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+            this.exchange = exchange;
+            this.createdAt = createdAt;
+            this.state = State.QUEUED;
+            this.message = "Waiting for a worker";
+            this.updatedAt = createdAt;
+        }
+
+        @Override
+        public void run() {
+            queuedJobs.decrementAndGet();
+            if (!start()) {
+                return;
+            }
+            try {
+                finish(State.SUCCEEDED, task.run(this), null);
+            } catch (CancellationException ex) {
+                finish(State.CANCELLED, null, ex.getMessage());
+            } catch (Exception ex) {
+                log.error("Job {} for {} failed", id, tool, ex);
+                finish(State.FAILED, null, ex.getMessage());
+            }
+        }
+
+        @Override
+        public void step(int completedSteps, int totalSteps, String message) {
+            if (cancelRequested) {
+                throw new CancellationException("Cancelled during: " + message);
+            }
+            JobStatus status;
+            synchronized (this) {
+                this.completedSteps = completedSteps;
+                this.totalSteps = totalSteps;
+                this.message = message;
+                this.updatedAt = Instant.now();
+                status = snapshot();
+                // Written under the job lock so a stale snapshot never overwrites a newer one on disk.
+                persist(status);
+            }
+            notifyProgress(exchange, status);
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+
+        void requestCancel() {
+            cancelRequested = true;
+        }
+
+        private boolean start() {
+            JobStatus status;
+            synchronized (this) {
+                if (state.isTerminal()) {
+                    return false;
+                }
+                if (cancelRequested) {
+                    state = State.CANCELLED;
+                    error = "Cancelled before start";
+                } else {
+                    state = State.RUNNING;
+                    message = "Started";
+                }
+                updatedAt = Instant.now();
+                status = snapshot();
+                persist(status);
+            }
+            notifyProgress(exchange, status);
+            return status.state() == State.RUNNING;
+        }
+
+        void finish(State finalState, String result, String error) {
+            JobStatus status;
+            synchronized (this) {
+                state = finalState;
+                this.result = result;
+                this.error = error;
+                if (finalState == State.SUCCEEDED) {
+                    completedSteps = totalSteps;
+                    message = "Done";
+                }
+                updatedAt = Instant.now();
+                status = snapshot();
+                persist(status);
+            }
+            notifyProgress(exchange, status);
+        }
+
+        synchronized JobStatus snapshot() {
+            return new JobStatus(id, tool, priority, state, completedSteps, totalSteps, message, result, error,
+                    createdAt, updatedAt);
+        }
+    }
+}
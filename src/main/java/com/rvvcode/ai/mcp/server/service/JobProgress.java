@@ -0,0 +1,19 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Progress sink handed to long-running generation steps. Each call is also a cooperative cancellation point:
+ * once the job has been cancelled, the next {@link #step} throws {@link CancellationException}.
+ */
+@FunctionalInterface
+public interface JobProgress {
+
+    /**
+     * Used for synchronous tool calls: no reporting, never cancelled.
+     */
+    JobProgress NONE = (completedSteps, totalSteps, message) -> {
+    };
+
+    void step(int completedSteps, int totalSteps, String message);
+}
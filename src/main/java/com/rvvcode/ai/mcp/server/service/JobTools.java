@@ -0,0 +1,48 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Service;
+
+@Service
+public class JobTools {
+
+    private static final Logger log = LoggerFactory.getLogger(JobTools.class);
+
+    private final JobManager jobManager;
+    private final ObjectMapper objectMapper;
+
+    public JobTools(JobManager jobManager, ObjectMapper objectMapper) {
+        this.jobManager = jobManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Tool(name = "job_status", description = "Report state, progress and, once finished, the result of a job started with async=true")
+    public String jobStatus(@ToolParam(description = "Job ID returned by the async tool call") String jobId) {
+        log.info("Entering jobStatus jobId={}", jobId);
+        try {
+            return objectMapper.writeValueAsString(jobManager.status(jobId));
+        } catch (Exception ex) {
+            log.error("Failed to read job status", ex);
+            return "Failed to read job status: " + ex.getMessage();
+        } finally {
+            log.info("Exiting jobStatus jobId={}", jobId);
+        }
+    }
+
+    @Tool(name = "job_cancel", description = "Cancel a queued or running job; a running job stops at its next progress step")
+    public String jobCancel(@ToolParam(description = "Job ID returned by the async tool call") String jobId) {
+        log.info("Entering jobCancel jobId={}", jobId);
+        try {
+            return objectMapper.writeValueAsString(jobManager.cancel(jobId));
+        } catch (Exception ex) {
+            log.error("Failed to cancel job", ex);
+            return "Failed to cancel job: " + ex.getMessage();
+        } finally {
+            log.info("Exiting jobCancel jobId={}", jobId);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.rvvcode.ai.mcp.server.service;
 
+import com.rvvcode.ai.mcp.server.dto.JobStatus.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
@@ -9,42 +11,46 @@ import org.springframework.stereotype.Service;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProjectGenerator {
 
     private static final Logger log = LoggerFactory.getLogger(ProjectGenerator.class);
 
+    private final ReadReplicaRoutingGenerator readReplicaRoutingGenerator = new ReadReplicaRoutingGenerator();
+    private final ContainerImageGenerator containerImageGenerator = new ContainerImageGenerator();
+    private final WorkspaceManager workspaceManager;
+    private final JobManager jobManager;
+
+    public ProjectGenerator(WorkspaceManager workspaceManager, JobManager jobManager) {
+        this.workspaceManager = workspaceManager;
+        this.jobManager = jobManager;
+    }
+
     @Tool(name = "bootstrap_project", description = "Generate a production-ready Spring Boot 3 skeleton with Oracle JPA, MapStruct and OpenAPI")
     public String bootstrapProject(
-            @ToolParam(description = "Project name / root folder") String projectName,
+            @ToolParam(description = "Project name / root folder, relative to the workspace sandbox") String projectName,
             @ToolParam(description = "Base Java package, for example com.acme.platform") String basePackage,
-            @ToolParam(description = "Functional API requirements in plain text") String apiRequirements) {
+            @ToolParam(description = "Functional API requirements in plain text") String apiRequirements,
+            @ToolParam(description = "Generate a read/write-split DataSource routing read-only transactions to replicas configured under app.datasource.replicas", required = false) Boolean readReplicas,
+            @ToolParam(description = "Run as a background job and return its ID immediately; poll job_status for the result", required = false) Boolean async,
+            ToolContext toolContext) {
 
         log.info("Entering bootstrapProject for projectName={}", projectName);
         try {
-            Path projectRoot = Paths.get(projectName).toAbsolutePath();
-            if (Files.exists(projectRoot)) {
-                return "Project already exists at " + projectRoot;
+            JobManager.JobTask task = progress -> workspaceManager.withProject(projectName,
+                    projectRoot -> generateProject(projectRoot, basePackage, apiRequirements, readReplicas, progress));
+            if (Boolean.TRUE.equals(async)) {
+                return jobManager.submit("bootstrap_project", Priority.LOW, toolContext, task).summary();
             }
-
-            createDirectory(projectRoot.resolve("src/main/java").resolve(basePackage.replace('.', '/')));
-            createDirectory(projectRoot.resolve("src/main/resources"));
-            createDirectory(projectRoot.resolve("src/test/java").resolve(basePackage.replace('.', '/')));
-
-            writeFile(projectRoot.resolve("pom.xml"), pomXml(projectName));
-            writeFile(projectRoot.resolve("src/main/resources/application.yml"), applicationYml());
-            writeFile(projectRoot.resolve("README.md"), readme(projectName, basePackage, apiRequirements));
-
-            Path featureRoot = projectRoot.resolve("src/main/java").resolve(basePackage.replace('.', '/')).resolve("customer");
-            createDirectory(featureRoot);
-            writeFile(featureRoot.resolve("CustomerController.java"), controllerSkeleton(basePackage));
-            writeFile(featureRoot.resolve("CustomerService.java"), serviceSkeleton(basePackage));
-            writeFile(featureRoot.resolve("CustomerRepository.java"), repositorySkeleton(basePackage));
-
-            return "Bootstrapped enterprise project at " + projectRoot;
-        } catch (IOException ex) {
+            return task.run(JobProgress.NONE);
+        } catch (Exception ex) {
             log.error("Failed to bootstrap project", ex);
             return "Failed to bootstrap project: " + ex.getMessage();
         } finally {
@@ -52,13 +58,70 @@ public class ProjectGenerator {
         }
     }
 
-    private void createDirectory(Path path) throws IOException {
-        Files.createDirectories(path);
+    private String generateProject(Path projectRoot, String basePackage, String apiRequirements, Boolean readReplicas,
+                                   JobProgress progress) throws IOException {
+        if (Files.exists(projectRoot)) {
+            return "Project already exists at " + projectRoot;
+        }
+        try {
+            return writeProject(projectRoot, basePackage, apiRequirements, Boolean.TRUE.equals(readReplicas), progress);
+        } catch (CancellationException ex) {
+            // Leave no half-written project behind, so the same name can be bootstrapped again.
+            deleteRecursively(projectRoot);
+            throw ex;
+        }
+    }
+
+    private String writeProject(Path projectRoot, String basePackage, String apiRequirements, boolean replicas,
+                                JobProgress progress) throws IOException {
+        int totalSteps = replicas ? 4 : 3;
+
+        progress.step(0, totalSteps, "Writing build and configuration files");
+        createDirectory(projectRoot, projectRoot.resolve("src/main/java").resolve(basePackage.replace('.', '/')));
+        createDirectory(projectRoot, projectRoot.resolve("src/main/resources"));
+        createDirectory(projectRoot, projectRoot.resolve("src/test/java").resolve(basePackage.replace('.', '/')));
+
+        writeFile(projectRoot, projectRoot.resolve("pom.xml"), pomXml(projectRoot.getFileName().toString()));
+        writeFile(projectRoot, projectRoot.resolve("src/main/resources/application.yml"),
+                applicationYml() + (replicas ? ReadReplicaRoutingGenerator.APPLICATION_YML : ""));
+        writeFile(projectRoot, projectRoot.resolve("src/main/resources/db/migration/V1__create_customer.sql"), customerMigration());
+        writeFile(projectRoot, projectRoot.resolve("README.md"), readme(projectRoot.getFileName().toString(), basePackage, apiRequirements));
+        containerImageGenerator.generate(projectRoot);
+
+        progress.step(1, totalSteps, "Writing application class");
+        String applicationName = applicationClassName(projectRoot);
+        writeFile(projectRoot, projectRoot.resolve("src/main/java").resolve(basePackage.replace('.', '/')).resolve(applicationName + ".java"),
+                applicationClass(basePackage, applicationName));
+
+        progress.step(2, totalSteps, "Writing customer feature");
+        Path featureRoot = projectRoot.resolve("src/main/java").resolve(basePackage.replace('.', '/')).resolve("customer");
+        createDirectory(projectRoot, featureRoot);
+        writeFile(projectRoot, featureRoot.resolve("CustomerEntity.java"), entitySkeleton(basePackage));
+        writeFile(projectRoot, featureRoot.resolve("CustomerController.java"), controllerSkeleton(basePackage));
+        writeFile(projectRoot, featureRoot.resolve("CustomerService.java"), serviceSkeleton(basePackage));
+        writeFile(projectRoot, featureRoot.resolve("CustomerRepository.java"), repositorySkeleton(basePackage));
+        if (replicas) {
+            progress.step(3, totalSteps, "Writing read/write-split DataSource");
+            readReplicaRoutingGenerator.generate(projectRoot, basePackage);
+        }
+
+        return "Bootstrapped enterprise project at " + projectRoot;
+    }
+
+    private void createDirectory(Path projectRoot, Path path) throws IOException {
+        WorkspaceManager.createDirectories(projectRoot, path);
     }
 
-    private void writeFile(Path path, String content) throws IOException {
-        createDirectory(path.getParent());
-        Files.writeString(path, content);
+    private void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void writeFile(Path projectRoot, Path path, String content) throws IOException {
+        WorkspaceManager.writeString(projectRoot, path, content);
     }
 
     private String pomXml(String projectName) {
@@ -104,11 +167,24 @@ public class ProjectGenerator {
                             <artifactId>mapstruct</artifactId>
                             <version>${mapstruct.version}</version>
                         </dependency>
+                        <dependency>
+                            <groupId>org.flywaydb</groupId>
+                            <artifactId>flyway-core</artifactId>
+                        </dependency>
+                        <dependency>
+                            <groupId>org.flywaydb</groupId>
+                            <artifactId>flyway-database-oracle</artifactId>
+                        </dependency>
                         <dependency>
                             <groupId>com.oracle.database.jdbc</groupId>
                             <artifactId>ojdbc11</artifactId>
                             <scope>runtime</scope>
                         </dependency>
+                        <dependency>
+                            <groupId>com.h2database</groupId>
+                            <artifactId>h2</artifactId>
+                            <scope>test</scope>
+                        </dependency>
                         <dependency>
                             <groupId>org.springframework.boot</groupId>
                             <artifactId>spring-boot-starter-test</artifactId>
@@ -118,6 +194,10 @@ public class ProjectGenerator {
 
                     <build>
                         <plugins>
+                            <plugin>
+                                <groupId>org.springframework.boot</groupId>
+                                <artifactId>spring-boot-maven-plugin</artifactId>
+                            </plugin>
                             <plugin>
                                 <groupId>org.apache.maven.plugins</groupId>
                                 <artifactId>maven-compiler-plugin</artifactId>
@@ -148,19 +228,68 @@ public class ProjectGenerator {
                     password: app_password
                     driver-class-name: oracle.jdbc.OracleDriver
                   jpa:
+                    # Keep connections and persistence contexts scoped to transactions, not to whole (streaming) requests.
+                    open-in-view: false
                     hibernate:
                       ddl-auto: validate
                     properties:
                       hibernate:
                         dialect: org.hibernate.dialect.OracleDialect
+                        # Initialize lazy associations in batches instead of one query per parent row.
+                        default_batch_fetch_size: 50
                   jackson:
                     default-property-inclusion: non_null
+                  mvc:
+                    async:
+                      # Streaming exports run as async requests; the servlet container default (30s) would cut them off.
+                      request-timeout: 30m
+                server:
+                  compression:
+                    enabled: true
+                    mime-types: application/json,application/problem+json,application/x-ndjson,text/plain
+                    # Below this size gzip costs more CPU than it saves on the wire.
+                    min-response-size: 2KB
                 springdoc:
                   swagger-ui:
                     path: /swagger-ui.html
                 """;
     }
 
+    private String applicationClassName(Path projectRoot) {
+        String name = Arrays.stream(projectRoot.getFileName().toString().split("[^A-Za-z0-9]+"))
+                .filter(part -> !part.isEmpty())
+                .map(part -> Character.toUpperCase(part.charAt(0)) + part.substring(1))
+                .collect(Collectors.joining());
+        return (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)) ? "Generated" + name : name) + "Application";
+    }
+
+    private String applicationClass(String basePackage, String applicationName) {
+        return """
+                package %s;
+
+                import org.springframework.boot.SpringApplication;
+                import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+                @SpringBootApplication
+                public class %s {
+
+                    public static void main(String[] args) {
+                        SpringApplication.run(%s.class, args);
+                    }
+                }
+                """.formatted(basePackage, applicationName, applicationName);
+    }
+
+    private String customerMigration() {
+        return """
+                create table customer (
+                    id number(19) generated by default as identity primary key,
+                    version number(19) default 0 not null,
+                    name varchar2(255)
+                );
+                """;
+    }
+
     private String readme(String projectName, String basePackage, String apiRequirements) {
         return """
                 # %s
@@ -173,16 +302,58 @@ public class ProjectGenerator {
 
                 ## API requirements
                 %s
-                """.formatted(projectName, basePackage, apiRequirements == null ? "N/A" : apiRequirements);
+
+                ## Container image
+                `docker build -t %s .` builds a layered image with an AppCDS archive recorded during a database-free
+                start (`training` profile). The entrypoint sizes the heap from the container memory limit
+                (`JAVA_MAX_RAM_PERCENTAGE`, default 75) and picks Serial, G1 or ZGC from the resulting heap size.
+                `scripts/measure-startup.sh` reports startup time and RSS with and without the archive.
+                """.formatted(projectName, basePackage, apiRequirements == null ? "N/A" : apiRequirements,
+                projectName.toLowerCase(Locale.ROOT));
+    }
+
+    private String entitySkeleton(String basePackage) {
+        return """
+                package %s.customer;
+
+                import jakarta.persistence.*;
+
+                @Entity
+                @Table(name = "CUSTOMER")
+                public class CustomerEntity {
+
+                    @Id
+                    @GeneratedValue(strategy = GenerationType.IDENTITY)
+                    private Long id;
+
+                    @Version
+                    private Long version;
+
+                    private String name;
+
+                    public Long getId() { return id; }
+                    public void setId(Long id) { this.id = id; }
+
+                    public Long getVersion() { return version; }
+                    public void setVersion(Long version) { this.version = version; }
+
+                    public String getName() { return name; }
+                    public void setName(String name) { this.name = name; }
+                }
+                """.formatted(basePackage);
     }
 
     private String controllerSkeleton(String basePackage) {
         return """
                 package %s.customer;
 
+                import org.springframework.http.CacheControl;
+                import org.springframework.http.HttpStatus;
+                import org.springframework.http.ResponseEntity;
                 import org.springframework.web.bind.annotation.GetMapping;
                 import org.springframework.web.bind.annotation.RequestMapping;
                 import org.springframework.web.bind.annotation.RestController;
+                import org.springframework.web.context.request.WebRequest;
 
                 import java.util.List;
 
@@ -190,6 +361,8 @@ public class ProjectGenerator {
                 @RequestMapping("/api/customers")
                 public class CustomerController {
 
+                    private static final CacheControl COLLECTION_CACHE = CacheControl.noCache().cachePrivate();
+
                     private final CustomerService service;
 
                     public CustomerController(CustomerService service) {
@@ -197,8 +370,12 @@ public class ProjectGenerator {
                     }
 
                     @GetMapping
-                    public List<String> findAll() {
-                        return service.findAll();
+                    public ResponseEntity<List<String>> findAll(WebRequest request) {
+                        String etag = service.collectionVersion();
+                        if (request.checkNotModified(etag)) {
+                            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(COLLECTION_CACHE).build();
+                        }
+                        return ResponseEntity.ok().eTag(etag).cacheControl(COLLECTION_CACHE).body(service.findAll());
                     }
                 }
                 """.formatted(basePackage);
@@ -232,6 +409,10 @@ public class ProjectGenerator {
                         log.info("Exiting CustomerService.findAll size={}", result.size());
                         return result;
                     }
+
+                    public String collectionVersion() {
+                        return repository.collectionVersion();
+                    }
                 }
                 """.formatted(basePackage);
     }
@@ -249,6 +430,9 @@ public class ProjectGenerator {
 
                     @Query("select c.name from CustomerEntity c")
                     List<String> findAllCustomerNames();
+
+                    @Query("select concat(str(count(c)), '-', str(coalesce(sum(c.version), 0)), '-', str(coalesce(max(c.id), 0))) from CustomerEntity c")
+                    String collectionVersion();
                 }
                 """.formatted(basePackage);
     }
@@ -0,0 +1,511 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.ArrayInitializerExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.MemberValuePair;
+import com.github.javaparser.ast.expr.NormalAnnotationExpr;
+import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cached, project-wide type index built with the JavaParser symbol solver. Each call to {@link #index(Path)}
+ * re-parses only the source files whose size or modification time changed since the previous call, plus the
+ * files referring to a type those changes added, moved or removed. At most
+ * {@code mcp.symbol-index.max-projects} projects are cached; the least recently used one is dropped first.
+ */
+@Component
+public class ProjectSymbolIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectSymbolIndex.class);
+
+    private static final Map<String, String> HTTP_MAPPINGS = Map.of(
+            "GetMapping", "GET",
+            "PostMapping", "POST",
+            "PutMapping", "PUT",
+            "DeleteMapping", "DELETE",
+            "PatchMapping", "PATCH");
+
+    private final Map<Path, ProjectState> projects;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ProjectSymbolIndex(MeterRegistry meterRegistry, @Value("${mcp.symbol-index.max-projects:32}") int maxProjects) {
+        this.meterRegistry = meterRegistry;
+        this.projects = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, ProjectState> eldest) {
+                return size() > maxProjects;
+            }
+        });
+        Gauge.builder("mcp.symbol.index.types", this, ProjectSymbolIndex::cachedTypes)
+                .description("Types held by all cached project symbol indexes")
+                .register(meterRegistry);
+        Gauge.builder("mcp.symbol.index.projects", projects, Map::size)
+                .description("Projects whose symbol index is cached")
+                .register(meterRegistry);
+    }
+
+    public record TypeInfo(String qualifiedName, String simpleName, String packageName, boolean isInterface,
+                           Set<String> annotations, List<String> extendedTypes, List<String> constructorDependencies,
+                           List<FieldInfo> fields, List<MethodInfo> methods, String requestPath) {
+
+        public boolean hasAnnotation(String name) {
+            return annotations.contains(name);
+        }
+    }
+
+    public record FieldInfo(String name, String type) {
+    }
+
+    public record MethodInfo(String name, String returnType, List<FieldInfo> parameters, boolean isPublic,
+                             String httpMethod, String path, Set<String> annotations) {
+
+        public boolean hasAnnotation(String name) {
+            return annotations.contains(name);
+        }
+    }
+
+    public record IndexStats(int files, int types, int reparsedFiles, int removedFiles, long buildMillis,
+                             long allocatedBytes) {
+
+        @Override
+        public String toString() {
+            return "files=%d types=%d reparsed=%d removed=%d buildMillis=%d allocatedKb=%d"
+                    .formatted(files, types, reparsedFiles, removedFiles, buildMillis, allocatedBytes / 1024);
+        }
+    }
+
+    /**
+     * Types declared in a piece of source code, together with the project snapshot they were resolved against.
+     */
+    public record Description(List<TypeInfo> types, Snapshot snapshot) {
+    }
+
+    public record Snapshot(Map<String, TypeInfo> types, IndexStats stats) {
+
+        public Optional<TypeInfo> findBySimpleName(String simpleName) {
+            return types.values().stream().filter(type -> type.simpleName().equals(simpleName))
+                    .min(Comparator.comparing(TypeInfo::qualifiedName));
+        }
+
+        public Optional<TypeInfo> find(String qualifiedOrSimpleName) {
+            TypeInfo type = types.get(qualifiedOrSimpleName);
+            return type != null ? Optional.of(type) : findBySimpleName(simpleName(qualifiedOrSimpleName));
+        }
+    }
+
+    private record FileState(long size, long lastModified, List<TypeInfo> types) {
+    }
+
+    private static final class ProjectState {
+        private final Map<Path, FileState> files = new HashMap<>();
+        private JavaParser parser;
+        private volatile int typeCount;
+    }
+
+    /**
+     * Returns an up-to-date snapshot of the types declared under {@code projectRoot/src/main/java}, updating
+     * the cached index incrementally.
+     */
+    public Snapshot index(Path projectRoot) throws IOException {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        ProjectState state = projects.computeIfAbsent(root, key -> new ProjectState());
+        synchronized (state) {
+            return update(root, state);
+        }
+    }
+
+    /**
+     * Describes the types declared in {@code sourceCode}, resolving referenced types against the project index,
+     * which is brought up to date first.
+     */
+    public Description describe(Path projectRoot, String sourceCode) throws IOException {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        ProjectState state = projects.computeIfAbsent(root, key -> new ProjectState());
+        synchronized (state) {
+            Snapshot snapshot = update(root, state);
+            ParseResult<CompilationUnit> result = state.parser.parse(sourceCode);
+            CompilationUnit unit = result.getResult()
+                    .filter(parsed -> result.isSuccessful())
+                    .orElseThrow(() -> new IllegalArgumentException("Cannot parse source code: " + result.getProblems()));
+            return new Description(describeTypes(unit, snapshot.types().keySet()), snapshot);
+        }
+    }
+
+    private Snapshot update(Path root, ProjectState state) throws IOException {
+        Path sourceRoot = root.resolve("src/main/java");
+        long start = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+
+        List<Path> sources;
+        if (Files.isDirectory(sourceRoot)) {
+            try (Stream<Path> walk = Files.walk(sourceRoot)) {
+                sources = walk.filter(path -> path.toString().endsWith(".java")).toList();
+            }
+        } else {
+            sources = List.of();
+        }
+
+        Set<String> previousTypes = typeNames(state.files.values());
+        Set<Path> removed = new HashSet<>(state.files.keySet());
+        sources.forEach(removed::remove);
+        removed.forEach(state.files::remove);
+
+        List<Path> changed = new ArrayList<>();
+        for (Path source : sources) {
+            FileState previous = state.files.get(source);
+            if (previous == null || previous.size() != Files.size(source)
+                    || previous.lastModified() != Files.getLastModifiedTime(source).toMillis()) {
+                changed.add(source);
+            }
+        }
+
+        if (!changed.isEmpty() || !removed.isEmpty() || state.parser == null) {
+            // A fresh solver per update: JavaParserTypeSolver caches parsed files and would serve stale types.
+            state.parser = newParser(sourceRoot);
+        }
+        Map<Path, Optional<CompilationUnit>> units = new LinkedHashMap<>();
+        for (Path source : changed) {
+            units.put(source, parse(state.parser, source));
+        }
+        Set<String> projectTypes = new HashSet<>();
+        state.files.forEach((path, file) -> {
+            if (!units.containsKey(path)) {
+                file.types().forEach(type -> projectTypes.add(type.qualifiedName()));
+            }
+        });
+        units.values().forEach(unit -> unit.ifPresent(parsed -> projectTypes.addAll(declaredTypeNames(parsed))));
+
+        // Types that appeared, moved or disappeared change how references in unchanged files resolve, so every file
+        // whose signatures mention one of them by simple name is described again.
+        Set<String> affected = new HashSet<>(previousTypes);
+        affected.addAll(projectTypes);
+        affected.removeIf(name -> previousTypes.contains(name) && projectTypes.contains(name));
+        if (!affected.isEmpty()) {
+            Set<String> affectedNames = affected.stream().map(ProjectSymbolIndex::simpleName).collect(Collectors.toSet());
+            for (Map.Entry<Path, FileState> file : state.files.entrySet()) {
+                if (!units.containsKey(file.getKey()) && references(file.getValue(), affectedNames)) {
+                    units.put(file.getKey(), parse(state.parser, file.getKey()));
+                }
+            }
+        }
+        for (Map.Entry<Path, Optional<CompilationUnit>> unit : units.entrySet()) {
+            Path source = unit.getKey();
+            List<TypeInfo> types = unit.getValue().map(parsed -> describeTypes(parsed, projectTypes)).orElse(List.of());
+            state.files.put(source, new FileState(Files.size(source), Files.getLastModifiedTime(source).toMillis(), types));
+        }
+
+        Map<String, TypeInfo> types = new HashMap<>();
+        state.files.values().forEach(file -> file.types().forEach(type -> types.put(type.qualifiedName(), type)));
+
+        long buildMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        state.typeCount = types.size();
+        IndexStats stats = new IndexStats(state.files.size(), types.size(), units.size(), removed.size(),
+                buildMillis, Math.max(0, allocatedBytes() - allocatedBefore));
+        recordMetrics(stats);
+        log.info("Indexed project {}: {}", root, stats);
+        return new Snapshot(Map.copyOf(types), stats);
+    }
+
+    private Optional<CompilationUnit> parse(JavaParser parser, Path source) throws IOException {
+        ParseResult<CompilationUnit> result = parser.parse(source);
+        if (result.getResult().isEmpty()) {
+            log.warn("Skipping unparsable source {}: {}", source, result.getProblems());
+        }
+        return result.getResult();
+    }
+
+    private static Set<String> typeNames(Collection<FileState> files) {
+        Set<String> names = new HashSet<>();
+        files.forEach(file -> file.types().forEach(type -> names.add(type.qualifiedName())));
+        return names;
+    }
+
+    private static Set<String> declaredTypeNames(CompilationUnit unit) {
+        String packageName = unit.getPackageDeclaration().map(pd -> pd.getNameAsString()).orElse("");
+        return unit.getTypes().stream()
+                .filter(type -> type.isClassOrInterfaceDeclaration() || type.isRecordDeclaration() || type.isEnumDeclaration())
+                .map(type -> packageName.isEmpty() ? type.getNameAsString() : packageName + "." + type.getNameAsString())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Whether any type reference recorded for the file (supertypes, dependencies, fields, method signatures)
+     * names one of {@code simpleNames}, qualified or not.
+     */
+    private static boolean references(FileState file, Set<String> simpleNames) {
+        return file.types().stream()
+                .flatMap(type -> Stream.of(type.extendedTypes().stream(), type.constructorDependencies().stream(),
+                                type.fields().stream().map(FieldInfo::type),
+                                type.methods().stream().flatMap(method -> Stream.concat(Stream.of(method.returnType()),
+                                        method.parameters().stream().map(FieldInfo::type))))
+                        .flatMap(references -> references))
+                .flatMap(reference -> Stream.of(reference.split("[^\\w.$]+")))
+                .anyMatch(name -> !name.isEmpty() && simpleNames.contains(simpleName(name)));
+    }
+
+    /**
+     * Drops the cached index of a project, forcing a full rebuild on the next call.
+     */
+    public void evict(Path projectRoot) {
+        projects.remove(projectRoot.toAbsolutePath().normalize());
+    }
+
+    private JavaParser newParser(Path sourceRoot) {
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver());
+        if (Files.isDirectory(sourceRoot)) {
+            typeSolver.add(new JavaParserTypeSolver(sourceRoot));
+        }
+        return new JavaParser(new ParserConfiguration()
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17)
+                .setSymbolResolver(new JavaSymbolSolver(typeSolver)));
+    }
+
+    private List<TypeInfo> describeTypes(CompilationUnit unit, Set<String> projectTypes) {
+        String packageName = unit.getPackageDeclaration().map(pd -> pd.getNameAsString()).orElse("");
+        List<TypeInfo> types = new ArrayList<>();
+        for (TypeDeclaration<?> type : unit.getTypes()) {
+            if (!type.isClassOrInterfaceDeclaration() && !type.isRecordDeclaration() && !type.isEnumDeclaration()) {
+                continue;
+            }
+            String qualifiedName = packageName.isEmpty() ? type.getNameAsString() : packageName + "." + type.getNameAsString();
+            Set<String> annotations = new HashSet<>();
+            type.getAnnotations().forEach(annotation -> annotations.add(annotation.getNameAsString()));
+
+            List<String> extendedTypes = List.of();
+            List<String> dependencies = List.of();
+            boolean isInterface = false;
+            if (type instanceof ClassOrInterfaceDeclaration clazz) {
+                isInterface = clazz.isInterface();
+                extendedTypes = clazz.getExtendedTypes().stream()
+                        .map(extended -> qualify(extended, unit, packageName, projectTypes))
+                        .toList();
+                dependencies = constructorDependencies(clazz, unit, packageName, projectTypes);
+            } else if (type instanceof RecordDeclaration record) {
+                dependencies = record.getParameters().stream()
+                        .map(parameter -> qualify(parameter.getType(), unit, packageName, projectTypes))
+                        .toList();
+            } else {
+                extendedTypes = List.of("java.lang.Enum<" + qualifiedName + ">");
+            }
+            List<FieldInfo> fields = type instanceof RecordDeclaration record
+                    ? record.getParameters().stream()
+                    .map(parameter -> new FieldInfo(parameter.getNameAsString(),
+                            qualify(parameter.getType(), unit, packageName, projectTypes)))
+                    .toList()
+                    : type.getFields().stream()
+                    .filter(field -> !field.isStatic())
+                    .flatMap(field -> field.getVariables().stream()
+                            .map(variable -> new FieldInfo(variable.getNameAsString(),
+                                    qualify(variable.getType(), unit, packageName, projectTypes))))
+                    .toList();
+            Optional<AnnotationExpr> requestMapping = type.getAnnotationByName("RequestMapping");
+            String basePath = requestMapping.flatMap(this::mappingPath).orElse("");
+            List<MethodInfo> methods = type.getMethods().stream()
+                    .map(method -> describeMethod(method, unit, packageName, projectTypes, basePath))
+                    .toList();
+
+            types.add(new TypeInfo(qualifiedName, type.getNameAsString(), packageName, isInterface,
+                    Set.copyOf(annotations), extendedTypes, dependencies, fields, methods,
+                    requestMapping.isPresent() ? basePath : null));
+        }
+        return types;
+    }
+
+    private MethodInfo describeMethod(MethodDeclaration method, CompilationUnit unit, String packageName,
+                                      Set<String> projectTypes, String basePath) {
+        List<FieldInfo> parameters = method.getParameters().stream()
+                .map(parameter -> new FieldInfo(parameter.getNameAsString(),
+                        qualify(parameter.getType(), unit, packageName, projectTypes)))
+                .toList();
+        String httpMethod = null;
+        String path = null;
+        for (AnnotationExpr annotation : method.getAnnotations()) {
+            String name = annotation.getNameAsString();
+            if (HTTP_MAPPINGS.containsKey(name)) {
+                httpMethod = HTTP_MAPPINGS.get(name);
+            } else if (name.equals("RequestMapping")) {
+                httpMethod = requestMethod(annotation).orElse("GET");
+            } else {
+                continue;
+            }
+            path = joinPaths(basePath, mappingPath(annotation).orElse(""));
+        }
+        return new MethodInfo(method.getNameAsString(), qualify(method.getType(), unit, packageName, projectTypes),
+                parameters, method.isPublic() || method.getParentNode()
+                        .filter(parent -> parent instanceof ClassOrInterfaceDeclaration clazz && clazz.isInterface())
+                        .isPresent(),
+                httpMethod, path, method.getAnnotations().stream()
+                        .map(AnnotationExpr::getNameAsString)
+                        .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    /**
+     * Constructor injection first (the constructor with most parameters), then final fields for classes
+     * relying on generated constructors such as Lombok's {@code @RequiredArgsConstructor}.
+     */
+    private List<String> constructorDependencies(ClassOrInterfaceDeclaration clazz, CompilationUnit unit,
+                                                 String packageName, Set<String> projectTypes) {
+        Optional<ConstructorDeclaration> constructor = clazz.getConstructors().stream()
+                .max(Comparator.comparingInt(declaration -> declaration.getParameters().size()));
+        if (constructor.isPresent()) {
+            return constructor.get().getParameters().stream()
+                    .map(Parameter::getType)
+                    .map(type -> qualify(type, unit, packageName, projectTypes))
+                    .toList();
+        }
+        return clazz.getFields().stream()
+                .filter(field -> field.isFinal() && !field.isStatic())
+                .map(FieldDeclaration::getElementType)
+                .map(type -> qualify(type, unit, packageName, projectTypes))
+                .toList();
+    }
+
+    private String qualify(Type type, CompilationUnit unit, String packageName, Set<String> projectTypes) {
+        try {
+            return type.resolve().describe();
+        } catch (RuntimeException ex) {
+            // Types from libraries outside the JDK are not on the solver's path; fall back to imports.
+            if (!(type instanceof ClassOrInterfaceType classType) || classType.getScope().isPresent()) {
+                return type.asString();
+            }
+            String simpleName = classType.getNameAsString();
+            String typeArguments = classType.getTypeArguments()
+                    .map(arguments -> "<" + String.join(", ", arguments.stream()
+                            .map(argument -> qualify(argument, unit, packageName, projectTypes)).toList()) + ">")
+                    .orElse("");
+            String samePackage = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+            String qualified = unit.getImports().stream()
+                    .filter(importDeclaration -> !importDeclaration.isAsterisk() && !importDeclaration.isStatic())
+                    .map(ImportDeclaration::getNameAsString)
+                    .filter(name -> name.endsWith("." + simpleName))
+                    .findFirst()
+                    .orElse(projectTypes.contains(samePackage) || unit.getTypes().stream()
+                            .anyMatch(declared -> declared.getNameAsString().equals(simpleName))
+                            ? samePackage : simpleName);
+            return qualified + typeArguments;
+        }
+    }
+
+    private Optional<String> mappingPath(AnnotationExpr annotation) {
+        Expression value = null;
+        if (annotation instanceof SingleMemberAnnotationExpr single) {
+            value = single.getMemberValue();
+        } else if (annotation instanceof NormalAnnotationExpr normal) {
+            value = normal.getPairs().stream()
+                    .filter(pair -> pair.getNameAsString().equals("value") || pair.getNameAsString().equals("path"))
+                    .map(MemberValuePair::getValue)
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (value instanceof ArrayInitializerExpr array && !array.getValues().isEmpty()) {
+            value = array.getValues().get(0);
+        }
+        return value instanceof StringLiteralExpr literal ? Optional.of(literal.getValue()) : Optional.empty();
+    }
+
+    private Optional<String> requestMethod(AnnotationExpr annotation) {
+        if (!(annotation instanceof NormalAnnotationExpr normal)) {
+            return Optional.empty();
+        }
+        return normal.getPairs().stream()
+                .filter(pair -> pair.getNameAsString().equals("method"))
+                .map(MemberValuePair::getValue)
+                .map(value -> value instanceof ArrayInitializerExpr array && !array.getValues().isEmpty()
+                        ? array.getValues().get(0) : value)
+                .map(value -> value instanceof FieldAccessExpr access ? access.getNameAsString() : value.toString())
+                .findFirst();
+    }
+
+    private void recordMetrics(IndexStats stats) {
+        Timer.builder("mcp.symbol.index.build")
+                .description("Time spent (re)building the project symbol index")
+                .register(meterRegistry)
+                .record(Duration.ofMillis(stats.buildMillis()));
+        DistributionSummary.builder("mcp.symbol.index.build.allocation")
+                .description("Bytes allocated by the indexing thread per index update; allocation churn, not index size")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(stats.allocatedBytes());
+        DistributionSummary.builder("mcp.symbol.index.reparsed.files")
+                .description("Source files re-parsed per index update")
+                .register(meterRegistry)
+                .record(stats.reparsedFiles());
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or 0 when the JVM does not track it; a heap usage delta would
+     * mix in other threads and garbage collections.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private double cachedTypes() {
+        synchronized (projects) {
+            return projects.values().stream().mapToInt(state -> state.typeCount).sum();
+        }
+    }
+
+    static String joinPaths(String base, String path) {
+        String joined = ("/" + base + "/" + path).replaceAll("/+", "/");
+        return joined.length() > 1 && joined.endsWith("/") ? joined.substring(0, joined.length() - 1) : joined;
+    }
+
+    static String simpleName(String typeName) {
+        String raw = typeName.contains("<") ? typeName.substring(0, typeName.indexOf('<')) : typeName;
+        return raw.substring(raw.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,360 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Writes the read/write-split datasource wiring for bootstrapped projects: read-only transactions are routed
+ * to a round-robin pool of replicas, everything else to the primary, with fallback to the primary when no
+ * replica can hand out a connection.
+ */
+class ReadReplicaRoutingGenerator {
+
+    static final String APPLICATION_YML = """
+            app:
+              datasource:
+                # Read-only transactions are spread round-robin over these replicas; writes always use spring.datasource.
+                replicas:
+                  - url: jdbc:oracle:thin:@localhost:1522/FREEPDB1
+                    username: app_reader
+                    password: app_password
+                # Wait at most this long for a replica connection, then skip the replica for retry-after.
+                connection-timeout: 1s
+                retry-after: 30s
+            """;
+
+    void generate(Path projectRoot, String basePackage) throws IOException {
+        String packagePath = basePackage.replace('.', '/') + "/config/datasource";
+        Path mainDir = projectRoot.resolve("src/main/java").resolve(packagePath);
+        Path testDir = projectRoot.resolve("src/test/java").resolve(packagePath);
+        WorkspaceManager.writeString(projectRoot, mainDir.resolve("ReadReplicaProperties.java"), propertiesClass(basePackage));
+        WorkspaceManager.writeString(projectRoot, mainDir.resolve("ReplicaPoolDataSource.java"), replicaPoolClass(basePackage));
+        WorkspaceManager.writeString(projectRoot, mainDir.resolve("ReadWriteRoutingDataSource.java"), routingClass(basePackage));
+        WorkspaceManager.writeString(projectRoot, mainDir.resolve("DataSourceRoutingConfiguration.java"), configurationClass(basePackage));
+        WorkspaceManager.writeString(projectRoot, testDir.resolve("ReadWriteRoutingDataSourceTest.java"), routingTest(basePackage));
+    }
+
+    private String propertiesClass(String basePackage) {
+        return """
+                package %s.config.datasource;
+
+                import org.springframework.boot.context.properties.ConfigurationProperties;
+                import org.springframework.boot.context.properties.bind.DefaultValue;
+
+                import java.time.Duration;
+                import java.util.List;
+
+                /**
+                 * Replicas for the read/write split. The primary is configured as usual under {@code spring.datasource}.
+                 *
+                 * @param replicas          replicas serving read-only transactions, used round-robin; none routes everything to the primary
+                 * @param connectionTimeout how long to wait for a replica connection before trying the next one or the primary
+                 * @param retryAfter        how long a replica that failed to hand out a connection is skipped
+                 */
+                @ConfigurationProperties("app.datasource")
+                public record ReadReplicaProperties(
+                        @DefaultValue List<Replica> replicas,
+                        @DefaultValue("1s") Duration connectionTimeout,
+                        @DefaultValue("30s") Duration retryAfter) {
+
+                    public record Replica(String url, String username, String password) {
+                    }
+                }
+                """.formatted(basePackage);
+    }
+
+    private String replicaPoolClass(String basePackage) {
+        return """
+                package %s.config.datasource;
+
+                import com.zaxxer.hikari.HikariDataSource;
+                import org.slf4j.Logger;
+                import org.slf4j.LoggerFactory;
+                import org.springframework.jdbc.datasource.AbstractDataSource;
+
+                import javax.sql.DataSource;
+                import java.io.Closeable;
+                import java.sql.Connection;
+                import java.sql.SQLException;
+                import java.sql.SQLFeatureNotSupportedException;
+                import java.time.Duration;
+                import java.util.List;
+                import java.util.concurrent.atomic.AtomicInteger;
+                import java.util.concurrent.atomic.AtomicLongArray;
+
+                /**
+                 * Hands out replica connections in round-robin order. A replica that fails to provide a connection is
+                 * skipped for the configured retry period; when no replica is usable the primary serves the read.
+                 */
+                public class ReplicaPoolDataSource extends AbstractDataSource implements Closeable {
+
+                    private static final Logger log = LoggerFactory.getLogger(ReplicaPoolDataSource.class);
+
+                    private final DataSource primary;
+                    private final List<HikariDataSource> replicas;
+                    private final long retryAfterNanos;
+                    // System.nanoTime() until which each replica is skipped; 0 means available.
+                    private final AtomicLongArray unavailableUntil;
+                    private final AtomicInteger next = new AtomicInteger();
+
+                    public ReplicaPoolDataSource(DataSource primary, List<HikariDataSource> replicas, Duration retryAfter) {
+                        this.primary = primary;
+                        this.replicas = List.copyOf(replicas);
+                        this.retryAfterNanos = retryAfter.toNanos();
+                        this.unavailableUntil = new AtomicLongArray(replicas.size());
+                    }
+
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        int size = replicas.size();
+                        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+                        for (int attempt = 0; attempt < size; attempt++) {
+                            int index = (start + attempt) %% size;
+                            long until = unavailableUntil.get(index);
+                            if (until != 0 && System.nanoTime() - until < 0) {
+                                continue;
+                            }
+                            HikariDataSource replica = replicas.get(index);
+                            try {
+                                Connection connection = replica.getConnection();
+                                unavailableUntil.set(index, 0);
+                                return connection;
+                            } catch (SQLException ex) {
+                                unavailableUntil.set(index, System.nanoTime() + retryAfterNanos);
+                                log.warn("Replica {} unavailable, routing reads elsewhere for {} s: {}", replica.getPoolName(),
+                                        Duration.ofNanos(retryAfterNanos).toSeconds(), ex.getMessage());
+                            }
+                        }
+                        return primary.getConnection();
+                    }
+
+                    @Override
+                    public Connection getConnection(String username, String password) throws SQLException {
+                        throw new SQLFeatureNotSupportedException("Replica credentials are configured under app.datasource.replicas");
+                    }
+
+                    @Override
+                    public void close() {
+                        replicas.forEach(HikariDataSource::close);
+                    }
+                }
+                """.formatted(basePackage);
+    }
+
+    private String routingClass(String basePackage) {
+        return """
+                package %s.config.datasource;
+
+                import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+                import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+                import javax.sql.DataSource;
+                import java.util.Map;
+
+                /**
+                 * Routes read-only transactions to the replica pool and everything else to the primary.
+                 * <p>
+                 * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction
+                 * managers obtain their connection before the read-only flag is published, so only a connection fetched
+                 * lazily, on the first statement, is routed correctly.
+                 */
+                public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+                    enum Route {
+                        PRIMARY, REPLICA
+                    }
+
+                    public ReadWriteRoutingDataSource(DataSource primary, DataSource replicas) {
+                        setTargetDataSources(Map.<Object, Object>of(Route.PRIMARY, primary, Route.REPLICA, replicas));
+                        setDefaultTargetDataSource(primary);
+                        afterPropertiesSet();
+                    }
+
+                    @Override
+                    protected Object determineCurrentLookupKey() {
+                        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+                    }
+                }
+                """.formatted(basePackage);
+    }
+
+    private String configurationClass(String basePackage) {
+        return """
+                package %s.config.datasource;
+
+                import com.zaxxer.hikari.HikariDataSource;
+                import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+                import org.springframework.boot.context.properties.ConfigurationProperties;
+                import org.springframework.boot.context.properties.EnableConfigurationProperties;
+                import org.springframework.context.annotation.Bean;
+                import org.springframework.context.annotation.Configuration;
+                import org.springframework.context.annotation.Primary;
+                import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+                import javax.sql.DataSource;
+                import java.util.ArrayList;
+                import java.util.List;
+
+                /**
+                 * Replaces the auto-configured {@code DataSource} with the read/write split. Flyway, JPA and
+                 * {@code JdbcTemplate} all use the primary {@code dataSource} bean below.
+                 */
+                @Configuration(proxyBeanMethods = false)
+                @EnableConfigurationProperties(ReadReplicaProperties.class)
+                public class DataSourceRoutingConfiguration {
+
+                    @Bean
+                    @ConfigurationProperties("spring.datasource.hikari")
+                    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+                        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+                        dataSource.setPoolName("primary");
+                        return dataSource;
+                    }
+
+                    @Bean
+                    public ReplicaPoolDataSource replicaPoolDataSource(HikariDataSource primaryDataSource, ReadReplicaProperties properties) {
+                        List<HikariDataSource> replicas = new ArrayList<>();
+                        for (ReadReplicaProperties.Replica replica : properties.replicas()) {
+                            HikariDataSource dataSource = new HikariDataSource();
+                            dataSource.setPoolName("replica-" + replicas.size());
+                            dataSource.setJdbcUrl(replica.url());
+                            dataSource.setUsername(replica.username());
+                            dataSource.setPassword(replica.password());
+                            dataSource.setReadOnly(true);
+                            dataSource.setConnectionTimeout(properties.connectionTimeout().toMillis());
+                            // Start even if a replica is down; reads fall back to the primary until it is back.
+                            dataSource.setInitializationFailTimeout(-1);
+                            replicas.add(dataSource);
+                        }
+                        return new ReplicaPoolDataSource(primaryDataSource, replicas, properties.retryAfter());
+                    }
+
+                    @Bean
+                    @Primary
+                    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPoolDataSource replicaPoolDataSource) {
+                        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaPoolDataSource));
+                    }
+                }
+                """.formatted(basePackage);
+    }
+
+    private String routingTest(String basePackage) {
+        return """
+                package %s.config.datasource;
+
+                import com.zaxxer.hikari.HikariDataSource;
+                import org.junit.jupiter.api.AfterEach;
+                import org.junit.jupiter.api.Test;
+                import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+                import org.springframework.jdbc.core.JdbcTemplate;
+                import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+                import org.springframework.jdbc.datasource.DriverManagerDataSource;
+                import org.springframework.transaction.support.TransactionTemplate;
+
+                import javax.sql.DataSource;
+                import java.io.Closeable;
+                import java.io.IOException;
+                import java.time.Duration;
+                import java.util.ArrayList;
+                import java.util.List;
+                import java.util.stream.Stream;
+
+                import static org.assertj.core.api.Assertions.assertThat;
+
+                /**
+                 * Verifies routing against separate in-memory H2 databases, each holding a marker row naming itself.
+                 */
+                class ReadWriteRoutingDataSourceTest {
+
+                    private final DataSourceRoutingConfiguration configuration = new DataSourceRoutingConfiguration();
+                    private final List<Closeable> pools = new ArrayList<>();
+
+                    @AfterEach
+                    void closePools() throws IOException {
+                        for (Closeable pool : pools) {
+                            pool.close();
+                        }
+                    }
+
+                    @Test
+                    void readOnlyTransactions_shouldUseReplicaAndEverythingElseThePrimary() {
+                        DataSource dataSource = routingDataSource(h2("primary"), h2("replica"));
+                        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+                        assertThat(node(readOnly(dataSource), jdbcTemplate)).isEqualTo("replica");
+                        assertThat(node(readWrite(dataSource), jdbcTemplate)).isEqualTo("primary");
+                        assertThat(node(jdbcTemplate)).isEqualTo("primary");
+                    }
+
+                    @Test
+                    void readOnlyTransactions_shouldRotateAcrossReplicas() {
+                        DataSource dataSource = routingDataSource(h2("primary"), h2("replica-a"), h2("replica-b"));
+                        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                        TransactionTemplate readOnly = readOnly(dataSource);
+
+                        List<String> nodes = Stream.generate(() -> node(readOnly, jdbcTemplate)).limit(4).toList();
+
+                        assertThat(nodes).containsExactlyInAnyOrder("replica-a", "replica-b", "replica-a", "replica-b");
+                    }
+
+                    @Test
+                    void readOnlyTransactions_shouldFallBackToPrimaryWhenReplicaIsDown() {
+                        DataSource dataSource = routingDataSource(h2("primary"), "jdbc:h2:tcp://localhost:1/unreachable");
+                        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                        TransactionTemplate readOnly = readOnly(dataSource);
+
+                        assertThat(node(readOnly, jdbcTemplate)).isEqualTo("primary");
+
+                        long start = System.nanoTime();
+                        assertThat(node(readOnly, jdbcTemplate)).isEqualTo("primary");
+                        // The failed replica is skipped now instead of waiting for its connection timeout again.
+                        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(250));
+                    }
+
+                    private DataSource routingDataSource(String primaryUrl, String... replicaUrls) {
+                        DataSourceProperties primaryProperties = new DataSourceProperties();
+                        primaryProperties.setUrl(primaryUrl);
+                        primaryProperties.setUsername("sa");
+                        primaryProperties.setPassword("");
+                        HikariDataSource primary = configuration.primaryDataSource(primaryProperties);
+                        pools.add(primary);
+
+                        List<ReadReplicaProperties.Replica> replicas = Stream.of(replicaUrls)
+                                .map(url -> new ReadReplicaProperties.Replica(url, "sa", ""))
+                                .toList();
+                        ReplicaPoolDataSource replicaPool = configuration.replicaPoolDataSource(primary,
+                                new ReadReplicaProperties(replicas, Duration.ofMillis(250), Duration.ofMinutes(1)));
+                        pools.add(replicaPool);
+                        return configuration.dataSource(primary, replicaPool);
+                    }
+
+                    private String h2(String node) {
+                        String url = "jdbc:h2:mem:routing-" + node + ";DB_CLOSE_DELAY=-1";
+                        JdbcTemplate setup = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+                        setup.execute("create table if not exists node (name varchar(20))");
+                        setup.update("delete from node");
+                        setup.update("insert into node (name) values (?)", node);
+                        return url;
+                    }
+
+                    private String node(JdbcTemplate jdbcTemplate) {
+                        return jdbcTemplate.queryForObject("select name from node", String.class);
+                    }
+
+                    private String node(TransactionTemplate transaction, JdbcTemplate jdbcTemplate) {
+                        return transaction.execute(status -> node(jdbcTemplate));
+                    }
+
+                    private TransactionTemplate readOnly(DataSource dataSource) {
+                        TransactionTemplate template = readWrite(dataSource);
+                        template.setReadOnly(true);
+                        return template;
+                    }
+
+                    private TransactionTemplate readWrite(DataSource dataSource) {
+                        return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+                    }
+                }
+                """.formatted(basePackage);
+    }
+}
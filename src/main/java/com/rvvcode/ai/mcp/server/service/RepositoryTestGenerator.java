@@ -0,0 +1,656 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import com.rvvcode.ai.mcp.server.service.ProjectSymbolIndex.FieldInfo;
+import com.rvvcode.ai.mcp.server.service.ProjectSymbolIndex.MethodInfo;
+import com.rvvcode.ai.mcp.server.service.ProjectSymbolIndex.Snapshot;
+import com.rvvcode.ai.mcp.server.service.ProjectSymbolIndex.TypeInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Writes {@code @DataJpaTest} query-budget tests for Spring Data repositories. Every declared finder runs against
+ * a seeded H2 dataset and is checked against Hibernate statistics (queries, statements, entity loads). Derived
+ * finders are called with values that select a known subset of the seeded rows and must return exactly that many.
+ */
+class RepositoryTestGenerator {
+
+    private static final List<String> MODIFYING_PREFIXES = List.of("delete", "remove", "save", "update", "insert");
+    private static final Set<String> COLLECTION_TYPES = Set.of("List", "Collection", "Set");
+    private static final Set<String> PAGE_TYPES = Set.of("Page", "Slice");
+    private static final Set<String> PAGING_PARAMETERS = Set.of("Pageable", "Sort");
+    private static final Set<String> RESERVED_NAMES = Set.of("rows", "row", "expected", "result", "stream",
+            "repository", "entityManager", "statistics", "elapsed");
+    private static final Pattern DERIVED_QUERY = Pattern.compile("^(find|read|get|query|search|stream|count|exists)(\\w*?)By(\\w*)$");
+    private static final Pattern LIMITING_SUBJECT = Pattern.compile("(First|Top)\\d*");
+    private static final Map<String, String> WRAPPERS = Map.of("boolean", "Boolean", "byte", "Byte", "short", "Short",
+            "int", "Integer", "long", "Long", "float", "Float", "double", "Double", "char", "Character");
+
+    private enum ResultKind { OPTIONAL, COLLECTION, PAGE, STREAM, SINGLE }
+
+    /**
+     * Spring Data predicate keywords, matched as suffixes of a property expression. Longer keywords come first so
+     * that, for example, {@code GreaterThanEqual} wins over {@code GreaterThan}.
+     */
+    private enum Operator {
+        NOT_NULL(0, false, "IsNotNull", "NotNull"),
+        IS_NULL(0, false, "IsNull", "Null"),
+        TRUE(0, false, "IsTrue", "True"),
+        FALSE(0, false, "IsFalse", "False"),
+        BETWEEN(2, true, "IsBetween", "Between"),
+        GREATER_OR_EQUAL(1, true, "IsGreaterThanEqual", "GreaterThanEqual"),
+        GREATER(1, true, "IsGreaterThan", "GreaterThan", "IsAfter", "After"),
+        LESS_OR_EQUAL(1, true, "IsLessThanEqual", "LessThanEqual"),
+        LESS(1, true, "IsLessThan", "LessThan", "IsBefore", "Before"),
+        NOT_IN(1, false, "IsNotIn", "NotIn"),
+        IN(1, false, "IsIn", "In"),
+        STARTING_WITH(1, false, "IsStartingWith", "StartingWith", "StartsWith"),
+        ENDING_WITH(1, false, "IsEndingWith", "EndingWith", "EndsWith"),
+        CONTAINING(1, false, "IsContaining", "Containing", "Contains"),
+        NOT_LIKE(1, false, "IsNotLike", "NotLike"),
+        LIKE(1, false, "IsLike", "Like"),
+        NOT_EQUAL(1, false, "IsNot", "Not"),
+        EQUAL(1, false, "Is", "Equals");
+
+        private final int parameters;
+        private final boolean range;
+        private final List<String> keywords;
+
+        Operator(int parameters, boolean range, String... keywords) {
+            this.parameters = parameters;
+            this.range = range;
+            this.keywords = List.of(keywords);
+        }
+    }
+
+    /**
+     * One predicate of a derived query: the property path from the entity (one field, or an association and one
+     * of its fields) and how it is compared.
+     */
+    private record Condition(List<FieldInfo> path, Operator operator, boolean ignoreCase) {
+
+        String getters() {
+            return path.stream().map(field -> "." + accessor("get", field) + "()").collect(Collectors.joining());
+        }
+
+        FieldInfo leaf() {
+            return path.get(path.size() - 1);
+        }
+    }
+
+    static boolean isRepository(TypeInfo type) {
+        return type.isInterface() && repositoryType(type).isPresent();
+    }
+
+    private static Optional<String> repositoryType(TypeInfo type) {
+        return type.extendedTypes().stream()
+                .filter(extended -> extended.contains("<") && ProjectSymbolIndex.simpleName(extended).endsWith("Repository"))
+                .findFirst();
+    }
+
+    String testSource(String packageName, TypeInfo repository, Snapshot snapshot) {
+        String repositoryType = repositoryType(repository).orElseThrow();
+        String entityTypeName = TestGenerator.splitTypeArguments(
+                repositoryType.substring(repositoryType.indexOf('<') + 1, repositoryType.lastIndexOf('>'))).get(0);
+        TypeInfo entity = snapshot.find(entityTypeName)
+                .filter(type -> type.hasAnnotation("Entity"))
+                .orElseThrow(() -> new IllegalArgumentException("Entity " + ProjectSymbolIndex.simpleName(entityTypeName)
+                        + " of " + repository.simpleName() + " not found in project sources"));
+        List<MethodInfo> finders = repository.methods().stream()
+                .filter(method -> !method.returnType().equals("void")
+                        && MODIFYING_PREFIXES.stream().noneMatch(prefix -> method.name().startsWith(prefix)))
+                .toList();
+        if (finders.isEmpty()) {
+            throw new IllegalArgumentException("No query methods declared in " + repository.simpleName());
+        }
+
+        Set<String> imports = new TreeSet<>(Set.of(
+                "org.hibernate.SessionFactory",
+                "org.hibernate.stat.Statistics",
+                "org.junit.jupiter.api.BeforeEach",
+                "org.junit.jupiter.api.Test",
+                "org.slf4j.Logger",
+                "org.slf4j.LoggerFactory",
+                "org.springframework.beans.factory.annotation.Autowired",
+                "org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase",
+                "org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest",
+                "org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager",
+                "java.time.Duration",
+                "java.util.ArrayList",
+                "java.util.List",
+                "java.util.function.Supplier"));
+        String entityName = TestGenerator.typeReference(entity.qualifiedName(), packageName, imports);
+        List<FieldInfo> associations = entity.fields().stream()
+                .filter(field -> isEntity(field.type(), snapshot))
+                .toList();
+
+        // Fields compared by range, or looked up by a finder returning a single row, get a distinct value per row;
+        // all others cycle through DISTINCT_VALUES values so that equality finders match a known share of rows.
+        Set<String> distinctFields = new HashSet<>();
+        for (MethodInfo finder : finders) {
+            ResultKind kind = resultKind(finder.returnType());
+            boolean singleRow = kind == ResultKind.OPTIONAL
+                    || kind == ResultKind.SINGLE && isEntity(finder.returnType(), snapshot);
+            conditions(finder, entity, snapshot).ifPresent(conditions -> conditions.stream()
+                    .filter(condition -> condition.path().size() == 1 && (condition.operator().range || singleRow))
+                    .forEach(condition -> distinctFields.add(condition.leaf().name())));
+        }
+
+        StringBuilder seed = new StringBuilder();
+        for (FieldInfo association : associations) {
+            TypeInfo parent = snapshot.find(association.type()).orElseThrow();
+            String parentName = TestGenerator.typeReference(parent.qualifiedName(), packageName, imports);
+            String parentVariable = association.name();
+            seed.append("""
+                            List<%1$s> %2$ss = new ArrayList<>();
+                            for (int i = 0; i < PARENT_ROWS; i++) {
+                                %1$s %2$s = new %1$s();
+                    %3$s            %2$ss.add(entityManager.persist(%2$s));
+                            }
+                    """.formatted(parentName, parentVariable,
+                    setters(parent, parentVariable, Set.of(), packageName, imports)));
+        }
+        String associationSetters = associations.stream()
+                .map(association -> "            row.%s(%ss.get(i %% PARENT_ROWS));\n"
+                        .formatted(accessor("set", association), association.name()))
+                .collect(Collectors.joining());
+        seed.append("""
+                        for (int i = 0; i < ROWS; i++) {
+                            %1$s row = new %1$s();
+                %2$s%3$s            rows.add(entityManager.persist(row));
+                        }
+                """.formatted(entityName, setters(entity, "row", distinctFields, packageName, imports), associationSetters));
+
+        Map<String, Integer> testNames = new HashMap<>();
+        String tests = finders.stream()
+                .map(finder -> {
+                    int occurrence = testNames.merge(finder.name(), 1, Integer::sum);
+                    String testName = finder.name() + (occurrence > 1 ? occurrence : "") + "_shouldStayWithinQueryBudget";
+                    return finderTest(finder, testName, entity, snapshot, packageName, imports);
+                })
+                .collect(Collectors.joining());
+
+        String database = entity.simpleName().replaceFirst("Entity$", "")
+                .toLowerCase(Locale.ROOT) + "-repository";
+        String repositoryName = repository.simpleName();
+        return """
+                package %1$s;
+
+                %2$s
+
+                import static org.assertj.core.api.Assertions.assertThat;
+
+                /**
+                 * Runs every finder of {@link %3$s} against a seeded H2 dataset and pins its cost: JPA queries, SQL
+                 * statements and entity loads from Hibernate statistics. Derived finders select a known subset of the
+                 * seeded rows and must return exactly that many, so an eager association causing N+1 selects or a
+                 * filtering finder that returns the wrong rows fails here instead of in production.
+                 */
+                @DataJpaTest(properties = {
+                        "spring.datasource.url=jdbc:h2:mem:%4$s;MODE=Oracle;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.flyway.enabled=false",
+                        "spring.liquibase.enabled=false"})
+                @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+                class %3$sTest {
+
+                    private static final Logger log = LoggerFactory.getLogger(%3$sTest.class);
+
+                    private static final int ROWS = 1_000;
+                    private static final int PARENT_ROWS = 10;
+                    private static final int DISTINCT_VALUES = 10;
+                    private static final int PAGE_SIZE = 20;
+                    // A returned row may bring its to-one associations along, but nothing else.
+                    private static final int MAX_LOADS_PER_ROW = %5$d;
+                    // Wall-clock budgets are opt-in (-Dquery.budget.lookup-millis, -Dquery.budget.scan-millis): timings on
+                    // shared CI runners are too noisy to fail a build on. Elapsed time is always logged.
+                    private static final Duration LOOKUP_BUDGET = budget("query.budget.lookup-millis");
+                    private static final Duration SCAN_BUDGET = budget("query.budget.scan-millis");
+
+                    @Autowired
+                    private %3$s repository;
+
+                    @Autowired
+                    private TestEntityManager entityManager;
+
+                    private final List<%6$s> rows = new ArrayList<>();
+                    private Statistics statistics;
+                    private Duration elapsed;
+
+                    @BeforeEach
+                    void seed() {
+                %7$s        entityManager.flush();
+                        entityManager.clear();
+                        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                                .unwrap(SessionFactory.class).getStatistics();
+                    }
+                %8$s
+                    /**
+                     * Runs the finder once to warm up the query plan cache, then measures a second run on an empty
+                     * persistence context so that every row is loaded from the database.
+                     */
+                    private <T> T measure(Supplier<T> finder) {
+                        finder.get();
+                        entityManager.clear();
+                        statistics.clear();
+                        long started = System.nanoTime();
+                        T result = finder.get();
+                        elapsed = Duration.ofNanos(System.nanoTime() - started);
+                        return result;
+                    }
+
+                    private void assertQueryCost(String finder, long maxStatements, long returnedEntities, Duration budget) {
+                        log.info("{}: {} queries, {} statements, {} entity loads in {} ms", finder,
+                                statistics.getQueryExecutionCount(), statistics.getPrepareStatementCount(),
+                                statistics.getEntityLoadCount(), elapsed.toMillis());
+                        assertThat(statistics.getQueryExecutionCount()).as("JPA queries").isLessThanOrEqualTo(maxStatements);
+                        assertThat(statistics.getPrepareStatementCount()).as("SQL statements").isLessThanOrEqualTo(maxStatements);
+                        assertThat(statistics.getEntityLoadCount()).as("entity loads")
+                                .isLessThanOrEqualTo(returnedEntities * MAX_LOADS_PER_ROW);
+                        if (budget != null) {
+                            assertThat(elapsed).as("elapsed time").isLessThanOrEqualTo(budget);
+                        }
+                    }
+
+                    private static Duration budget(String property) {
+                        Long millis = Long.getLong(property);
+                        return millis == null ? null : Duration.ofMillis(millis);
+                    }
+                }
+                """.formatted(packageName, importLines(imports), repositoryName, database, 1 + associations.size(),
+                entityName, seed, tests);
+    }
+
+    private String finderTest(MethodInfo finder, String testName, TypeInfo entity, Snapshot snapshot,
+                              String packageName, Set<String> imports) {
+        Optional<List<Condition>> conditions = conditions(finder, entity, snapshot);
+        String returnType = finder.returnType();
+        ResultKind kind = resultKind(returnType);
+        String elementType = kind == ResultKind.SINGLE ? returnType : typeArgument(returnType);
+        boolean entityResult = isEntity(elementType, snapshot);
+        boolean paged = finder.parameters().stream()
+                .anyMatch(parameter -> ProjectSymbolIndex.simpleName(parameter.type()).equals("Pageable"));
+
+        StringBuilder arrange = new StringBuilder();
+        List<String> arguments = new ArrayList<>();
+        boolean seededArguments = true;
+        boolean filtered;
+        String expected = null;
+        if (conditions.isPresent()) {
+            // Derived query: every argument selects a known part of the seeded rows, and the same predicate applied
+            // to the seeded rows in memory gives the exact number of rows the finder must return.
+            List<String> predicates = new ArrayList<>();
+            List<FieldInfo> parameters = finder.parameters().stream()
+                    .filter(parameter -> !PAGING_PARAMETERS.contains(ProjectSymbolIndex.simpleName(parameter.type())))
+                    .toList();
+            List<String> variables = new ArrayList<>();
+            for (Condition condition : conditions.get()) {
+                List<String> conditionVariables = new ArrayList<>();
+                for (int i = 0; i < condition.operator().parameters; i++) {
+                    FieldInfo parameter = parameters.get(variables.size());
+                    String variable = RESERVED_NAMES.contains(parameter.name()) ? parameter.name() + "Value" : parameter.name();
+                    arrange.append("        %s %s = %s;\n".formatted(
+                            TestGenerator.typeReference(parameter.type(), packageName, imports), variable,
+                            sample(condition, i, imports)));
+                    variables.add(variable);
+                    conditionVariables.add(variable);
+                }
+                predicates.add(predicate(condition, conditionVariables));
+            }
+            int next = 0;
+            for (FieldInfo parameter : finder.parameters()) {
+                arguments.add(PAGING_PARAMETERS.contains(ProjectSymbolIndex.simpleName(parameter.type()))
+                        ? pagingArgument(parameter, packageName, imports)
+                        : variables.get(next++));
+            }
+            filtered = !predicates.isEmpty();
+            if (filtered) {
+                arrange.append("""
+                                long expected = rows.stream()
+                                        .filter(row -> %s)
+                                        .count();
+                        """.formatted(String.join("\n                        && ", predicates)));
+            } else {
+                arrange.append("        long expected = rows.size();\n");
+            }
+            expected = "expected";
+        } else {
+            filtered = false;
+            for (FieldInfo parameter : finder.parameters()) {
+                String simpleType = ProjectSymbolIndex.simpleName(parameter.type());
+                String argument = PAGING_PARAMETERS.contains(simpleType)
+                        ? pagingArgument(parameter, packageName, imports)
+                        : argument(parameter, entity, snapshot);
+                filtered |= !PAGING_PARAMETERS.contains(simpleType);
+                seededArguments &= argument != null;
+                arguments.add(argument != null ? argument : TestGenerator.defaultValue(parameter.type()));
+            }
+        }
+        String call = "repository.%s(%s)".formatted(finder.name(), String.join(", ", arguments));
+        boolean scan = !filtered && kind != ResultKind.OPTIONAL && kind != ResultKind.SINGLE;
+
+        String act;
+        if (kind == ResultKind.STREAM) {
+            act = """
+                            List<%1$s> result = measure(() -> {
+                                try (%2$s stream = %3$s) {
+                                    return stream.toList();
+                                }
+                            });
+                    """.formatted(TestGenerator.typeReference(elementType, packageName, imports),
+                    TestGenerator.typeReference(returnType, packageName, imports), call);
+        } else {
+            act = "        %s result = measure(() -> %s);\n"
+                    .formatted(TestGenerator.typeReference(returnType, packageName, imports), call);
+        }
+
+        String rows = switch (kind) {
+            case OPTIONAL -> "result.stream().count()";
+            case COLLECTION, STREAM -> "result.size()";
+            case PAGE -> "result.getNumberOfElements()";
+            case SINGLE -> "result == null ? 0 : 1";
+        };
+        String resultAssertion = expected != null
+                ? exactAssertion(finder, kind, entityResult, paged)
+                : weakAssertion(kind, returnType, scan, seededArguments);
+        // Page and Slice may add a count query; everything else must be answered by a single statement.
+        String budget = "        assertQueryCost(\"%s\", %d, %s, %s);\n".formatted(finder.name(),
+                kind == ResultKind.PAGE ? 2 : 1, entityResult ? rows : "0", scan ? "SCAN_BUDGET" : "LOOKUP_BUDGET");
+
+        return """
+
+                    @Test
+                    void %s() {
+                %s%s
+                %s%s    }
+                """.formatted(testName, arrange.isEmpty() ? "" : arrange + "\n", act,
+                resultAssertion.isEmpty() ? "" : "        " + resultAssertion, budget);
+    }
+
+    private String exactAssertion(MethodInfo finder, ResultKind kind, boolean entityResult, boolean paged) {
+        return switch (kind) {
+            case OPTIONAL -> "assertThat(result.stream().count()).isEqualTo(expected);\n";
+            case COLLECTION, STREAM -> "assertThat(result).hasSize((int) expected);\n";
+            case PAGE -> paged
+                    ? "assertThat(result.getNumberOfElements()).isEqualTo((int) Math.min(expected, PAGE_SIZE));\n"
+                    : "assertThat(result.getNumberOfElements()).isEqualTo((int) expected);\n";
+            case SINGLE -> finder.name().startsWith("exists")
+                    ? "assertThat(result).isEqualTo(expected > 0);\n"
+                    : finder.name().startsWith("count")
+                    ? "assertThat(result).isEqualTo(%sexpected);\n".formatted(isInt(finder.returnType()) ? "(int) " : "")
+                    : entityResult ? "assertThat(result == null ? 0 : 1).isEqualTo(expected);\n"
+                    : "assertThat(result).isNotNull();\n";
+        };
+    }
+
+    /**
+     * For {@code @Query} methods and finder names that are not parsed, only checks that rows matched by the first
+     * seeded row come back.
+     */
+    private String weakAssertion(ResultKind kind, String returnType, boolean scan, boolean seededArguments) {
+        return switch (kind) {
+            case OPTIONAL -> seededArguments ? "assertThat(result).isPresent();\n" : "";
+            case COLLECTION, STREAM, PAGE -> {
+                String actual = kind == ResultKind.PAGE ? "result.getContent()" : "result";
+                yield scan || seededArguments ? "assertThat(%s).isNotEmpty();\n".formatted(actual) : "";
+            }
+            case SINGLE -> !seededArguments ? ""
+                    : returnType.equals("boolean") ? "assertThat(result).isTrue();\n"
+                    : isPrimitive(returnType) ? "assertThat(result).isPositive();\n"
+                    : "assertThat(result).isNotNull();\n";
+        };
+    }
+
+    /**
+     * Parses the predicate of a derived query method ({@code findByStatusAndCreatedAtAfter}) against the entity.
+     * Empty for {@code @Query} methods, {@code Or} predicates, limiting subjects ({@code findFirst10By}) and
+     * properties that are not seeded, because their expected result cannot be computed from the seeded rows.
+     */
+    private Optional<List<Condition>> conditions(MethodInfo finder, TypeInfo entity, Snapshot snapshot) {
+        Matcher matcher = DERIVED_QUERY.matcher(finder.name());
+        if (finder.hasAnnotation("Query") || !matcher.matches() || LIMITING_SUBJECT.matcher(matcher.group(2)).find()) {
+            return Optional.empty();
+        }
+        String predicate = matcher.group(3).replaceFirst("OrderBy[A-Z].*$", "");
+        if (predicate.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        if (predicate.split("(?<=[a-z0-9])Or(?=[A-Z])").length > 1) {
+            return Optional.empty();
+        }
+        List<Condition> conditions = new ArrayList<>();
+        for (String part : predicate.split("(?<=[a-z0-9])And(?=[A-Z])")) {
+            boolean ignoreCase = false;
+            for (String suffix : List.of("IgnoreCase", "IgnoringCase")) {
+                if (part.endsWith(suffix)) {
+                    part = part.substring(0, part.length() - suffix.length());
+                    ignoreCase = true;
+                }
+            }
+            Operator operator = Operator.EQUAL;
+            String property = part;
+            for (Operator candidate : Operator.values()) {
+                String expression = part;
+                Optional<String> keyword = candidate.keywords.stream()
+                        .filter(name -> expression.endsWith(name) && expression.length() > name.length())
+                        .findFirst();
+                if (keyword.isPresent()) {
+                    operator = candidate;
+                    property = part.substring(0, part.length() - keyword.get().length());
+                    break;
+                }
+            }
+            Optional<List<FieldInfo>> path = propertyPath(property, entity, snapshot);
+            if (path.isEmpty() || ignoreCase && !path.get().get(path.get().size() - 1).type().equals("java.lang.String")) {
+                return Optional.empty();
+            }
+            conditions.add(new Condition(path.get(), operator, ignoreCase));
+        }
+        long parameters = finder.parameters().stream()
+                .filter(parameter -> !PAGING_PARAMETERS.contains(ProjectSymbolIndex.simpleName(parameter.type())))
+                .count();
+        return conditions.stream().mapToInt(condition -> condition.operator().parameters).sum() == parameters
+                ? Optional.of(conditions)
+                : Optional.empty();
+    }
+
+    /**
+     * Resolves {@code Status} to the entity's {@code status} field and {@code CarrierId} to {@code carrier.id}.
+     * Only the id, seeded fields and fields of associated entities are accepted.
+     */
+    private Optional<List<FieldInfo>> propertyPath(String property, TypeInfo entity, Snapshot snapshot) {
+        String name = Character.toLowerCase(property.charAt(0)) + property.substring(1);
+        for (FieldInfo field : entity.fields()) {
+            if (field.name().equals(name) && (field.name().equals("id") || seedValue(field, "i").isPresent())) {
+                return Optional.of(List.of(field));
+            }
+        }
+        for (FieldInfo field : entity.fields()) {
+            String prefix = Character.toUpperCase(field.name().charAt(0)) + field.name().substring(1);
+            if (property.startsWith(prefix) && property.length() > prefix.length() && isEntity(field.type(), snapshot)) {
+                TypeInfo target = snapshot.find(field.type()).orElseThrow();
+                Optional<List<FieldInfo>> nested = propertyPath(property.substring(prefix.length()), target, snapshot)
+                        .filter(path -> path.size() == 1);
+                if (nested.isPresent()) {
+                    return Optional.of(List.of(field, nested.get().get(0)));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Argument value for a condition, taken from a seeded row: the first row for equality (a {@code 1 / DISTINCT_VALUES}
+     * share of rows, or exactly one for distinct fields), the middle row for open ranges and the quartiles for
+     * {@code Between}.
+     */
+    private String sample(Condition condition, int index, Set<String> imports) {
+        String getters = condition.getters();
+        return switch (condition.operator()) {
+            case BETWEEN -> (index == 0 ? "rows.get(ROWS / 4)" : "rows.get(ROWS * 3 / 4)") + getters;
+            case GREATER, GREATER_OR_EQUAL, LESS, LESS_OR_EQUAL -> "rows.get(ROWS / 2)" + getters;
+            case IN, NOT_IN -> {
+                imports.add("java.util.List");
+                yield "List.of(rows.get(0)%1$s, rows.get(1)%1$s)".formatted(getters);
+            }
+            default -> "rows.get(0)" + getters;
+        };
+    }
+
+    private String predicate(Condition condition, List<String> variables) {
+        String leafType = condition.leaf().type();
+        String value = WRAPPERS.containsKey(leafType)
+                ? "%s.valueOf(row%s)".formatted(WRAPPERS.get(leafType), condition.getters())
+                : "row" + condition.getters();
+        String first = variables.isEmpty() ? null : variables.get(0);
+        return switch (condition.operator()) {
+            case IS_NULL -> value + " == null";
+            case NOT_NULL -> value + " != null";
+            case TRUE -> "Boolean.TRUE.equals(" + value + ")";
+            case FALSE -> "Boolean.FALSE.equals(" + value + ")";
+            case BETWEEN -> "%1$s != null && %1$s.compareTo(%2$s) >= 0 && %1$s.compareTo(%3$s) <= 0"
+                    .formatted(value, first, variables.get(1));
+            case GREATER -> "%s != null && %s.compareTo(%s) > 0".formatted(value, value, first);
+            case GREATER_OR_EQUAL -> "%s != null && %s.compareTo(%s) >= 0".formatted(value, value, first);
+            case LESS -> "%s != null && %s.compareTo(%s) < 0".formatted(value, value, first);
+            case LESS_OR_EQUAL -> "%s != null && %s.compareTo(%s) <= 0".formatted(value, value, first);
+            case IN -> "%s.contains(%s)".formatted(first, value);
+            case NOT_IN -> "%s != null && !%s.contains(%s)".formatted(value, first, value);
+            case STARTING_WITH -> "%s != null && %s.startsWith(%s)".formatted(value, value, first);
+            case ENDING_WITH -> "%s != null && %s.endsWith(%s)".formatted(value, value, first);
+            case CONTAINING -> "%s != null && %s.contains(%s)".formatted(value, value, first);
+            case NOT_LIKE, NOT_EQUAL -> "%s != null && !%s.equals(%s)".formatted(value, value, first);
+            case LIKE, EQUAL -> condition.ignoreCase()
+                    ? "%s != null && %s.equalsIgnoreCase(%s)".formatted(value, value, first)
+                    : "%s != null && %s.equals(%s)".formatted(value, value, first);
+        };
+    }
+
+    private String pagingArgument(FieldInfo parameter, String packageName, Set<String> imports) {
+        if (ProjectSymbolIndex.simpleName(parameter.type()).equals("Pageable")) {
+            imports.add("org.springframework.data.domain.PageRequest");
+            return "PageRequest.of(0, PAGE_SIZE)";
+        }
+        return TestGenerator.typeReference(parameter.type(), packageName, imports) + ".by(\"id\")";
+    }
+
+    /**
+     * Arguments for finders whose name is not parsed come from the first seeded row: a parameter named like an
+     * entity field gets that field's value, {@code <association>Id} the associated row's id. Returns {@code null}
+     * for parameters that cannot be matched.
+     */
+    private String argument(FieldInfo parameter, TypeInfo entity, Snapshot snapshot) {
+        for (FieldInfo field : entity.fields()) {
+            if (field.name().equals(parameter.name())) {
+                return "rows.get(0)." + accessor("get", field) + "()";
+            }
+            if (parameter.name().equals(field.name() + "Id") && isEntity(field.type(), snapshot)) {
+                return "rows.get(0)." + accessor("get", field) + "().getId()";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Setter calls for every basic field of row {@code i}: {@code distinctFields} get a different, increasing value
+     * per row, all others cycle through {@code DISTINCT_VALUES} values. Identifiers and versions are left to JPA,
+     * associations and unsupported types stay {@code null}.
+     */
+    private String setters(TypeInfo entity, String variable, Set<String> distinctFields, String packageName,
+                           Set<String> imports) {
+        StringBuilder setters = new StringBuilder();
+        for (FieldInfo field : entity.fields()) {
+            if (field.name().equals("id") || field.name().equals("version")) {
+                continue;
+            }
+            String index = variable.equals("row") && !distinctFields.contains(field.name()) ? "(i % DISTINCT_VALUES)" : "i";
+            seedValue(field, index).ifPresent(value -> setters.append(
+                    "            %s.%s(%s);\n".formatted(variable, accessor("set", field),
+                            value.contains("TYPE")
+                                    ? value.replace("TYPE", TestGenerator.typeReference(field.type(), packageName, imports))
+                                    : value)));
+        }
+        return setters.toString();
+    }
+
+    /**
+     * Seed expression for a field of row {@code index} (either {@code i} or a parenthesized expression of it);
+     * {@code TYPE} stands for the field's type reference.
+     */
+    private Optional<String> seedValue(FieldInfo field, String index) {
+        String argument = index.startsWith("(") ? index.substring(1, index.length() - 1) : index;
+        return Optional.ofNullable(switch (ProjectSymbolIndex.simpleName(field.type())) {
+            case "String" -> "\"%s-\" + %s".formatted(field.name(), index);
+            case "Long", "long" -> "(long) " + index;
+            case "Integer", "int" -> argument;
+            case "Double", "double" -> "(double) " + index;
+            case "Boolean", "boolean" -> "i % 2 == 0";
+            case "BigDecimal" -> "TYPE.valueOf(" + argument + ")";
+            case "LocalDate" -> "TYPE.of(2024, 1, 1).plusDays(" + argument + ")";
+            case "LocalDateTime" -> "TYPE.of(2024, 1, 1, 0, 0).plusMinutes(" + argument + ")";
+            case "Instant" -> "TYPE.parse(\"2024-01-01T00:00:00Z\").plusSeconds(" + argument + ")";
+            default -> null;
+        });
+    }
+
+    private ResultKind resultKind(String returnType) {
+        String raw = ProjectSymbolIndex.simpleName(returnType);
+        if (!returnType.contains("<")) {
+            return ResultKind.SINGLE;
+        }
+        if (raw.equals("Optional")) {
+            return ResultKind.OPTIONAL;
+        }
+        if (raw.equals("Stream")) {
+            return ResultKind.STREAM;
+        }
+        if (PAGE_TYPES.contains(raw)) {
+            return ResultKind.PAGE;
+        }
+        return COLLECTION_TYPES.contains(raw) ? ResultKind.COLLECTION : ResultKind.SINGLE;
+    }
+
+    private String typeArgument(String type) {
+        return type.substring(type.indexOf('<') + 1, type.lastIndexOf('>')).strip();
+    }
+
+    private boolean isEntity(String type, Snapshot snapshot) {
+        return !type.contains("<") && snapshot.find(type).filter(candidate -> candidate.hasAnnotation("Entity")).isPresent();
+    }
+
+    private boolean isInt(String type) {
+        return type.equals("int") || type.equals("java.lang.Integer");
+    }
+
+    private boolean isPrimitive(String type) {
+        return !type.contains(".") && Character.isLowerCase(type.charAt(0));
+    }
+
+    private static String accessor(String prefix, FieldInfo field) {
+        String name = prefix.equals("get") && field.type().equals("boolean") ? "is" : prefix;
+        return name + Character.toUpperCase(field.name().charAt(0)) + field.name().substring(1);
+    }
+
+    private String importLines(Set<String> imports) {
+        String libraries = imports.stream().filter(name -> !name.startsWith("java."))
+                .map(name -> "import " + name + ";").collect(Collectors.joining("\n"));
+        String jdk = imports.stream().filter(name -> name.startsWith("java."))
+                .map(name -> "import " + name + ";").collect(Collectors.joining("\n"));
+        return libraries + "\n\n" + jdk;
+    }
+}
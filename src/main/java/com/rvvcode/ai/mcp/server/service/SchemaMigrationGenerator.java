@@ -0,0 +1,550 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.body.MethodDeclaration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Derives table DDL and indexes from Spring Data derived-query finder names and writes them as
+ * Flyway or Liquibase migrations. Indexes already declared in earlier migrations are skipped, and columns
+ * missing from a table created earlier are added with {@code alter table}.
+ * {@code ManyToOne} join columns are always indexed, since Oracle does not index foreign keys itself.
+ */
+class SchemaMigrationGenerator {
+
+    static final String FLYWAY = "flyway";
+    static final String LIQUIBASE = "liquibase";
+
+    private static final String FLYWAY_DIR = "src/main/resources/db/migration";
+    private static final String LIQUIBASE_DIR = "src/main/resources/db/changelog";
+    private static final int MAX_IDENTIFIER_LENGTH = 30;
+    private static final List<String> BUILD_FILES = List.of("pom.xml", "build.gradle", "build.gradle.kts");
+
+    private static final Pattern FINDER_PREFIX = Pattern.compile(
+            "^(find|read|get|query|search|stream|count|exists|delete|remove)(\\p{Lu}.*?)??By(.+)$");
+    private static final Pattern ORDER_BY_SPLIT = Pattern.compile("(?<=Asc|Desc)(?=\\p{Lu})");
+    private static final Pattern ORDER_BY_PART = Pattern.compile("^(.+?)(Asc|Desc)?$");
+    private static final Pattern FLYWAY_VERSION = Pattern.compile("^V(\\d+)__.*\\.sql$");
+    private static final Pattern LIQUIBASE_SEQUENCE = Pattern.compile("^(\\d+)-.*\\.sql$");
+    private static final Pattern CREATE_TABLE = Pattern.compile("create\\s+table\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALTER_TABLE_ADD = Pattern.compile(
+            "alter\\s+table\\s+(\\w+)\\s+add\\b\\s*", Pattern.CASE_INSENSITIVE);
+    private static final Set<String> TABLE_CONSTRAINT_KEYWORDS = Set.of("constraint", "primary", "foreign", "unique", "check");
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "create\\s+(?:unique\\s+)?index\\s+(\\w+)\\s+on\\s+(\\w+)\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+
+    // Longest keywords first so that e.g. GreaterThanEqual wins over GreaterThan.
+    private static final List<String> EQUALITY_KEYWORDS = List.of("IsFalse", "IsTrue", "IsNull", "Equals", "False",
+            "True", "Null", "IsIn", "Is", "In");
+    private static final List<String> RANGE_KEYWORDS = List.of("IsGreaterThanEqual", "IsLessThanEqual", "GreaterThanEqual",
+            "LessThanEqual", "IsGreaterThan", "IsStartingWith", "IsLessThan", "GreaterThan", "StartingWith", "IsBetween",
+            "StartsWith", "IsBefore", "LessThan", "IsAfter", "Between", "Before", "After", "IsLike", "Like");
+    private static final List<String> NON_INDEXABLE_KEYWORDS = List.of("IsNotContaining", "NotContaining", "IsContaining",
+            "IsEndingWith", "Containing", "EndingWith", "IsNotEmpty", "IgnoreCase", "IsNotNull", "IgnoringCase", "Contains",
+            "EndsWith", "IsNotLike", "IsNotIn", "NotEmpty", "IsEmpty", "NotLike", "NotNull", "IsWithin", "Within", "IsNear",
+            "Matches", "NotIn", "IsNot", "Empty", "Regex", "Near", "Not");
+
+    private static final Map<String, String> SQL_TYPES = Map.ofEntries(
+            Map.entry("String", "varchar2(255)"),
+            Map.entry("Long", "number(19)"),
+            Map.entry("long", "number(19)"),
+            Map.entry("Integer", "number(10)"),
+            Map.entry("int", "number(10)"),
+            Map.entry("Short", "number(5)"),
+            Map.entry("short", "number(5)"),
+            Map.entry("Boolean", "number(1)"),
+            Map.entry("boolean", "number(1)"),
+            Map.entry("BigDecimal", "number(19,2)"),
+            Map.entry("Double", "float(53)"),
+            Map.entry("double", "float(53)"),
+            Map.entry("Float", "float(24)"),
+            Map.entry("float", "float(24)"),
+            Map.entry("LocalDate", "date"),
+            Map.entry("LocalDateTime", "timestamp"),
+            Map.entry("Instant", "timestamp with time zone"),
+            Map.entry("OffsetDateTime", "timestamp with time zone"),
+            Map.entry("ZonedDateTime", "timestamp with time zone"),
+            Map.entry("UUID", "raw(16)"));
+
+    record FinderQuery(String methodName, List<List<Predicate>> orBranches, List<String> orderProperties) {
+    }
+
+    record Predicate(String property, Kind kind) {
+    }
+
+    enum Kind {
+        EQUALITY, RANGE, NON_INDEXABLE
+    }
+
+    record IndexDefinition(String name, String table, List<String> columns, String source) {
+    }
+
+    /**
+     * Parses repository method signatures, failing fast on anything that is not a valid Java method declaration.
+     */
+    static List<MethodDeclaration> parseRepositoryMethods(List<String> signatures) {
+        if (signatures == null) {
+            return List.of();
+        }
+        List<MethodDeclaration> methods = new ArrayList<>();
+        for (String signature : signatures) {
+            String trimmed = signature.strip();
+            String declaration = trimmed.endsWith(";") || trimmed.endsWith("}") ? trimmed : trimmed + ";";
+            try {
+                methods.add(StaticJavaParser.parseMethodDeclaration(declaration));
+            } catch (ParseProblemException ex) {
+                throw new IllegalArgumentException("Invalid repository method signature: " + signature, ex);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Derives the predicate and ordering properties from a Spring Data derived-query method name.
+     * Methods carrying an explicit {@code @Query} or not following the naming convention yield nothing.
+     */
+    Optional<FinderQuery> parseFinder(MethodDeclaration method, Map<String, String> fields) {
+        if (method.getAnnotationByName("Query").isPresent() || method.getAnnotationByName("NativeQuery").isPresent()) {
+            return Optional.empty();
+        }
+        Matcher matcher = FINDER_PREFIX.matcher(method.getNameAsString());
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        String criteria = matcher.group(3);
+        List<String> orderProperties = new ArrayList<>();
+        int orderByIndex = criteria.indexOf("OrderBy");
+        if (orderByIndex >= 0) {
+            for (String part : ORDER_BY_SPLIT.split(criteria.substring(orderByIndex + "OrderBy".length()))) {
+                Matcher orderMatcher = ORDER_BY_PART.matcher(part);
+                if (orderMatcher.matches()) {
+                    orderProperties.add(uncapitalize(orderMatcher.group(1)));
+                }
+            }
+            criteria = criteria.substring(0, orderByIndex);
+        }
+        if (criteria.endsWith("AllIgnoreCase") || criteria.endsWith("AllIgnoringCase")) {
+            // Case-insensitive comparisons wrap every column in upper(), which a plain index cannot serve.
+            return Optional.of(new FinderQuery(method.getNameAsString(), List.of(), List.of()));
+        }
+
+        List<List<Predicate>> orBranches = new ArrayList<>();
+        for (String branch : criteria.isEmpty() ? List.<String>of() : splitOnKeyword(criteria, "Or")) {
+            List<Predicate> predicates = splitOnKeyword(branch, "And").stream()
+                    .filter(part -> !part.isEmpty())
+                    .map(part -> toPredicate(part, fields))
+                    .toList();
+            orBranches.add(predicates);
+        }
+        return Optional.of(new FinderQuery(method.getNameAsString(), orBranches, orderProperties));
+    }
+
+    /**
+     * Plans composite indexes for the given finders: equality columns first, then the first range column,
+     * then ordering columns when the branch has no range predicate. Indexes that are a leftmost prefix of
+     * another planned or already existing index on the same table are dropped.
+     */
+    List<IndexDefinition> planIndexes(String table, Map<String, String> fields, List<FinderQuery> finders,
+                                      List<IndexDefinition> existing) {
+        Map<List<String>, String> candidates = new LinkedHashMap<>();
+        for (FinderQuery finder : finders) {
+            for (List<Predicate> branch : finder.orBranches()) {
+                List<String> columns = indexColumns(fields, branch, finder.orderProperties());
+                if (!columns.isEmpty() && !columns.get(0).equals("id")) {
+                    candidates.putIfAbsent(columns, finder.methodName());
+                }
+            }
+            if (finder.orBranches().isEmpty() && !finder.orderProperties().isEmpty()) {
+                List<String> columns = finder.orderProperties().stream()
+                        .map(property -> toColumn(fields, property))
+                        .takeWhile(column -> column != null)
+                        .toList();
+                if (!columns.isEmpty() && !columns.get(0).equals("id")) {
+                    candidates.putIfAbsent(columns, finder.methodName());
+                }
+            }
+        }
+
+        List<List<String>> existingColumns = existing.stream()
+                .filter(index -> index.table().equalsIgnoreCase(table))
+                .map(IndexDefinition::columns)
+                .toList();
+        Set<String> usedNames = existing.stream().map(index -> index.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        List<IndexDefinition> planned = new ArrayList<>();
+        for (Map.Entry<List<String>, String> candidate : candidates.entrySet()) {
+            List<String> columns = candidate.getKey();
+            boolean covered = Stream.concat(existingColumns.stream(), candidates.keySet().stream())
+                    .anyMatch(other -> other != columns && other.size() >= columns.size()
+                            && other.subList(0, columns.size()).equals(columns)
+                            && (other.size() > columns.size() || existingColumns.contains(other)));
+            if (covered) {
+                continue;
+            }
+            String name = indexName(table, columns, usedNames);
+            usedNames.add(name);
+            planned.add(new IndexDefinition(name, table, columns, candidate.getValue()));
+        }
+        return planned;
+    }
+
+    /**
+     * Writes the migration for the given entity, or returns empty when the table, its columns and every derived
+     * index already exist in earlier migrations.
+     */
+    Optional<Path> generate(Path projectRoot, String entityName, Map<String, String> fields, Collection<Association> associations,
+                            List<MethodDeclaration> repositoryMethods, String migrationTool) throws IOException {
+        String tool = migrationTool(projectRoot, migrationTool);
+        String table = entityName.toLowerCase(Locale.ROOT);
+        List<String> existingSql = readExistingMigrations(projectRoot);
+        Set<String> existingTables = existingSql.stream()
+                .flatMap(sql -> CREATE_TABLE.matcher(sql).results())
+                .map(result -> result.group(1).toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        boolean tableExists = existingTables.contains(table);
+        List<IndexDefinition> existingIndexes = existingSql.stream()
+                .flatMap(sql -> CREATE_INDEX.matcher(sql).results())
+                .map(result -> new IndexDefinition(result.group(1), result.group(2), splitColumns(result.group(3)), null))
+                .toList();
+
+        List<Association> joins = associations.stream().filter(Association::isToOne).toList();
+        Map<String, String> columns = new LinkedHashMap<>(fields);
+        joins.forEach(join -> columns.put(join.idProperty(), "Long"));
+        List<FinderQuery> finders = Stream.concat(
+                        joins.stream().map(join -> new FinderQuery("foreign key " + join.joinColumn(),
+                                List.of(List.of(new Predicate(join.idProperty(), Kind.EQUALITY))), List.of())),
+                        repositoryMethods.stream().map(method -> parseFinder(method, columns)).flatMap(Optional::stream))
+                .toList();
+        List<String> addColumns = tableExists
+                ? addColumnsSql(table, fields, joins, existingColumns(existingSql, table), existingTables)
+                : List.of();
+        List<IndexDefinition> indexes = planIndexes(table, columns, finders, existingIndexes);
+        if (tableExists && addColumns.isEmpty() && indexes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        StringBuilder sql = new StringBuilder();
+        if (!tableExists) {
+            sql.append(createTableSql(table, fields, joins, existingTables)).append('\n');
+        } else if (!addColumns.isEmpty()) {
+            // New columns come before the indexes that may cover them.
+            sql.append(String.join("\n", addColumns)).append("\n\n");
+        }
+        for (IndexDefinition index : indexes) {
+            sql.append("-- ").append(index.source()).append('\n')
+                    .append("create index ").append(index.name()).append(" on ").append(table)
+                    .append(" (").append(String.join(", ", index.columns())).append(");\n\n");
+        }
+        String description = !tableExists ? "create_" + table
+                : addColumns.isEmpty() ? "add_" + table + "_indexes"
+                : "alter_" + table;
+
+        Path migration = tool.equals(FLYWAY)
+                ? writeFlywayMigration(projectRoot, description, sql.toString().strip())
+                : writeLiquibaseMigration(projectRoot, description, sql.toString().strip());
+        return Optional.of(migration);
+    }
+
+    /**
+     * Resolves the requested migration tool, defaulting to Flyway. Liquibase is only accepted when the project's
+     * build declares {@code liquibase-core}; bootstrapped projects ship Flyway, which would never run a changelog.
+     */
+    String migrationTool(Path projectRoot, String migrationTool) throws IOException {
+        String tool = migrationTool == null || migrationTool.isBlank() ? FLYWAY : migrationTool.strip().toLowerCase(Locale.ROOT);
+        if (!tool.equals(FLYWAY) && !tool.equals(LIQUIBASE)) {
+            throw new IllegalArgumentException("Unsupported migration tool: " + migrationTool + " (expected flyway or liquibase)");
+        }
+        if (tool.equals(LIQUIBASE) && !declaresDependency(projectRoot, "liquibase-core")) {
+            throw new IllegalArgumentException("Migration tool liquibase requires a liquibase-core dependency in "
+                    + String.join(", ", BUILD_FILES) + " (bootstrapped projects use flyway)");
+        }
+        return tool;
+    }
+
+    private boolean declaresDependency(Path projectRoot, String artifactId) throws IOException {
+        for (String buildFile : BUILD_FILES) {
+            Path path = projectRoot.resolve(buildFile);
+            if (Files.isRegularFile(path) && Files.readString(path).contains(artifactId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Foreign key constraints are only declared when the referenced table is created earlier (or is this
+     * table); otherwise the join column is left unconstrained so migrations run in any generation order.
+     */
+    String createTableSql(String table, Map<String, String> fields, List<Association> joins, Set<String> existingTables) {
+        List<String> columns = new ArrayList<>();
+        columns.add("    id number(19) generated by default as identity primary key");
+        columns.add("    version number(19) default 0 not null");
+        fields.forEach((name, type) -> columns.add("    " + toSnakeCase(name) + " " + sqlType(type)));
+        joins.forEach(join -> columns.add("    " + joinColumnSql(table, join, existingTables)));
+        return "create table " + table + " (\n" + String.join(",\n", columns) + "\n);\n";
+    }
+
+    /**
+     * One {@code alter table ... add} per field or join column the existing table does not have yet.
+     * Columns are added nullable, so rows written before the migration stay valid.
+     */
+    List<String> addColumnsSql(String table, Map<String, String> fields, List<Association> joins,
+                               Set<String> existingColumns, Set<String> existingTables) {
+        List<String> statements = new ArrayList<>();
+        fields.forEach((name, type) -> {
+            String column = toSnakeCase(name);
+            if (!existingColumns.contains(column)) {
+                statements.add("alter table " + table + " add " + column + " " + sqlType(type) + ";");
+            }
+        });
+        for (Association join : joins) {
+            if (!existingColumns.contains(join.joinColumn())) {
+                statements.add("alter table " + table + " add " + joinColumnSql(table, join, existingTables) + ";");
+            }
+        }
+        return statements;
+    }
+
+    private String joinColumnSql(String table, Association join, Set<String> existingTables) {
+        String column = join.joinColumn() + " number(19)";
+        if (existingTables.contains(join.targetTable()) || join.targetTable().equals(table)) {
+            column += " constraint " + truncate("fk_" + table + "_" + join.joinColumn())
+                    + " references " + join.targetTable() + " (id)";
+        }
+        return column;
+    }
+
+    /**
+     * Collects the columns of {@code table} declared by earlier migrations, from its {@code create table}
+     * statement and any later {@code alter table ... add}, in both the single-column and the parenthesized
+     * {@code add (col type, ...)} form. Constraints added with {@code alter table} declare no columns.
+     */
+    Set<String> existingColumns(List<String> existingSql, String table) {
+        Set<String> columns = new LinkedHashSet<>();
+        for (String sql : existingSql) {
+            Matcher create = CREATE_TABLE.matcher(sql);
+            while (create.find()) {
+                int open = sql.indexOf('(', create.end());
+                if (create.group(1).equalsIgnoreCase(table) && open >= 0) {
+                    addColumnNames(columns, sql, open);
+                }
+            }
+            Matcher alter = ALTER_TABLE_ADD.matcher(sql);
+            while (alter.find()) {
+                if (!alter.group(1).equalsIgnoreCase(table)) {
+                    continue;
+                }
+                if (alter.end() < sql.length() && sql.charAt(alter.end()) == '(') {
+                    addColumnNames(columns, sql, alter.end());
+                } else {
+                    int end = sql.indexOf(';', alter.end());
+                    addColumnName(columns, sql.substring(alter.end(), end < 0 ? sql.length() : end));
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Adds the column names of the parenthesized definition list opening at {@code open}, split on top-level
+     * commas only so that types like {@code number(19,2)} stay intact.
+     */
+    private static void addColumnNames(Set<String> columns, String sql, int open) {
+        int depth = 0;
+        int start = open + 1;
+        for (int i = open; i < sql.length() && (i == open || depth > 0); i++) {
+            char c = sql.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            }
+            if (c == ',' && depth == 1 || c == ')' && depth == 0) {
+                addColumnName(columns, sql.substring(start, i));
+                start = i + 1;
+            }
+        }
+    }
+
+    private static void addColumnName(Set<String> columns, String definition) {
+        String name = definition.strip().split("[\\s(]+")[0].toLowerCase(Locale.ROOT);
+        if (!name.isEmpty() && !TABLE_CONSTRAINT_KEYWORDS.contains(name)) {
+            columns.add(name);
+        }
+    }
+
+    static String sqlType(String javaType) {
+        String simpleName = javaType.substring(javaType.lastIndexOf('.') + 1).strip();
+        return SQL_TYPES.getOrDefault(simpleName, "varchar2(255)");
+    }
+
+    static String toSnakeCase(String property) {
+        return property.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+
+    private Path writeFlywayMigration(Path projectRoot, String description, String sql) throws IOException {
+        Path dir = projectRoot.resolve(FLYWAY_DIR);
+        WorkspaceManager.createDirectories(projectRoot, dir);
+        int version = nextSequence(dir, FLYWAY_VERSION);
+        Path path = dir.resolve("V" + version + "__" + description + ".sql");
+        WorkspaceManager.writeString(projectRoot, path, sql + "\n");
+        return path;
+    }
+
+    private Path writeLiquibaseMigration(Path projectRoot, String description, String sql) throws IOException {
+        Path dir = projectRoot.resolve(LIQUIBASE_DIR);
+        Path changes = dir.resolve("changes");
+        WorkspaceManager.createDirectories(projectRoot, changes);
+        Path master = dir.resolve("db.changelog-master.yaml");
+        if (Files.notExists(master)) {
+            WorkspaceManager.writeString(projectRoot, master, """
+                    databaseChangeLog:
+                      - includeAll:
+                          path: db/changelog/changes/
+                    """);
+        }
+        int sequence = nextSequence(changes, LIQUIBASE_SEQUENCE);
+        String fileName = "%03d-%s.sql".formatted(sequence, description.replace('_', '-'));
+        Path path = changes.resolve(fileName);
+        WorkspaceManager.writeString(projectRoot, path, "--liquibase formatted sql\n\n--changeset mcp-generator:" + sequence + "-" + description + "\n"
+                + sql + "\n");
+        return path;
+    }
+
+    private int nextSequence(Path dir, Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> pattern.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToInt(matcher -> Integer.parseInt(matcher.group(1)))
+                    .max()
+                    .orElse(0) + 1;
+        }
+    }
+
+    private List<String> readExistingMigrations(Path projectRoot) throws IOException {
+        List<String> contents = new ArrayList<>();
+        for (String dir : List.of(FLYWAY_DIR, LIQUIBASE_DIR)) {
+            Path root = projectRoot.resolve(dir);
+            if (Files.notExists(root)) {
+                continue;
+            }
+            try (Stream<Path> walk = Files.walk(root)) {
+                for (Path file : walk.filter(path -> path.toString().endsWith(".sql")).sorted().toList()) {
+                    contents.add(Files.readString(file));
+                }
+            }
+        }
+        return contents;
+    }
+
+    private List<String> indexColumns(Map<String, String> fields, List<Predicate> branch, List<String> orderProperties) {
+        List<String> columns = new ArrayList<>();
+        branch.stream().filter(predicate -> predicate.kind() == Kind.EQUALITY)
+                .map(predicate -> toColumn(fields, predicate.property()))
+                .filter(column -> column != null && !columns.contains(column))
+                .forEach(columns::add);
+        Optional<String> range = branch.stream().filter(predicate -> predicate.kind() == Kind.RANGE)
+                .map(predicate -> toColumn(fields, predicate.property()))
+                .filter(column -> column != null && !columns.contains(column))
+                .findFirst();
+        if (range.isPresent()) {
+            columns.add(range.get());
+        } else if (!columns.isEmpty()) {
+            for (String property : orderProperties) {
+                String column = toColumn(fields, property);
+                if (column == null) {
+                    break;
+                }
+                if (!columns.contains(column)) {
+                    columns.add(column);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private Predicate toPredicate(String part, Map<String, String> fields) {
+        if (fields.containsKey(uncapitalize(part))) {
+            return new Predicate(uncapitalize(part), Kind.EQUALITY);
+        }
+        for (String keyword : NON_INDEXABLE_KEYWORDS) {
+            if (part.endsWith(keyword) && part.length() > keyword.length()) {
+                return new Predicate(uncapitalize(stripKeyword(part, keyword)), Kind.NON_INDEXABLE);
+            }
+        }
+        for (String keyword : RANGE_KEYWORDS) {
+            if (part.endsWith(keyword) && part.length() > keyword.length()) {
+                return new Predicate(uncapitalize(stripKeyword(part, keyword)), Kind.RANGE);
+            }
+        }
+        for (String keyword : EQUALITY_KEYWORDS) {
+            if (part.endsWith(keyword) && part.length() > keyword.length()) {
+                return new Predicate(uncapitalize(stripKeyword(part, keyword)), Kind.EQUALITY);
+            }
+        }
+        return new Predicate(uncapitalize(part), Kind.EQUALITY);
+    }
+
+    private String toColumn(Map<String, String> fields, String property) {
+        if (property.equals("id")) {
+            return "id";
+        }
+        return fields.containsKey(property) ? toSnakeCase(property) : null;
+    }
+
+    private static String stripKeyword(String part, String keyword) {
+        return part.substring(0, part.length() - keyword.length());
+    }
+
+    private static List<String> splitOnKeyword(String criteria, String keyword) {
+        return List.of(criteria.split("(?<=\\p{Ll}|\\d)" + keyword + "(?=\\p{Lu})"));
+    }
+
+    private static List<String> splitColumns(String columns) {
+        return Stream.of(columns.split(","))
+                .map(column -> column.strip().split("\\s+")[0].toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private static String indexName(String table, List<String> columns, Set<String> usedNames) {
+        String name = truncate("ix_" + table + "_" + String.join("_", columns));
+        String candidate = name;
+        for (int n = 2; usedNames.contains(candidate); n++) {
+            // Trim for the suffix actually used, so _10 and beyond stay within the identifier limit.
+            String suffix = "_" + n;
+            candidate = name.substring(0, Math.min(name.length(), MAX_IDENTIFIER_LENGTH - suffix.length())) + suffix;
+        }
+        return candidate;
+    }
+
+    private static String truncate(String identifier) {
+        String name = identifier.toLowerCase(Locale.ROOT);
+        if (name.length() > MAX_IDENTIFIER_LENGTH) {
+            String hash = Integer.toHexString(name.hashCode() & 0xffff);
+            name = name.substring(0, MAX_IDENTIFIER_LENGTH - hash.length() - 1) + "_" + hash;
+        }
+        return name;
+    }
+
+    private static String uncapitalize(String value) {
+        return value.isEmpty() ? value : Character.toLowerCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -1,21 +1,25 @@
 package com.rvvcode.ai.mcp.server.service;
 
-import com.github.javaparser.StaticJavaParser;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
+import com.rvvcode.ai.mcp.server.dto.JobStatus.Priority;
+import com.rvvcode.ai.mcp.server.service.ProjectSymbolIndex.FieldInfo;
+import com.rvvcode.ai.mcp.server.service.ProjectSymbolIndex.MethodInfo;
+import com.rvvcode.ai.mcp.server.service.ProjectSymbolIndex.TypeInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
 
-import java.nio.file.Files;
+import javax.lang.model.SourceVersion;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,27 +27,36 @@ public class TestGenerator {
 
     private static final Logger log = LoggerFactory.getLogger(TestGenerator.class);
 
-    @Tool(name = "generate_tests", description = "Generate JUnit5 + AssertJ tests with Mockito for services and WebMvcTest for controllers")
+    private final RepositoryTestGenerator repositoryTestGenerator = new RepositoryTestGenerator();
+    private final ProjectSymbolIndex symbolIndex;
+    private final WorkspaceManager workspaceManager;
+    private final JobManager jobManager;
+
+    public TestGenerator(ProjectSymbolIndex symbolIndex, WorkspaceManager workspaceManager, JobManager jobManager) {
+        this.symbolIndex = symbolIndex;
+        this.workspaceManager = workspaceManager;
+        this.jobManager = jobManager;
+    }
+
+    @Tool(name = "generate_tests", description = "Generate JUnit5 + AssertJ tests with Mockito for services, WebMvcTest for controllers and DataJpaTest query budgets for Spring Data repositories")
     public String generateTests(
             @ToolParam(description = "Class name in source code") String className,
-            @ToolParam(description = "Source code for the Java class") String sourceCode) {
+            @ToolParam(description = "Source code for the Java class") String sourceCode,
+            @ToolParam(description = "Project root used for symbol resolution and output, relative to the workspace sandbox; defaults to the sandbox itself", required = false) String workspaceRoot,
+            @ToolParam(description = "Run as a background job and return its ID immediately; poll job_status for the result", required = false) Boolean async,
+            ToolContext toolContext) {
 
         log.info("Entering generateTests className={}", className);
         try {
-            CompilationUnit unit = StaticJavaParser.parse(sourceCode);
-            String packageName = unit.getPackageDeclaration().map(pd -> pd.getNameAsString()).orElse("com.generated");
-            ClassOrInterfaceDeclaration clazz = unit.getClassByName(className)
-                    .orElseThrow(() -> new IllegalArgumentException("Class not found in provided sourceCode: " + className));
-
-            String testCode = isController(clazz)
-                    ? webMvcTestSource(packageName, clazz)
-                    : serviceUnitTestSource(packageName, clazz);
-
-            Path outputPath = Paths.get(System.getProperty("user.dir"), "generated-tests", className + "Test.java");
-            Files.createDirectories(outputPath.getParent());
-            Files.writeString(outputPath, testCode);
-
-            return "Generated test at " + outputPath + "\n\n" + testCode;
+            if (className == null || !SourceVersion.isIdentifier(className) || SourceVersion.isKeyword(className)) {
+                throw new IllegalArgumentException("Invalid class name: " + className);
+            }
+            JobManager.JobTask task = progress -> workspaceManager.withProject(workspaceRoot,
+                    projectRoot -> generate(projectRoot, className, sourceCode, progress));
+            if (Boolean.TRUE.equals(async)) {
+                return jobManager.submit("generate_tests", Priority.HIGH, toolContext, task).summary();
+            }
+            return task.run(JobProgress.NONE);
         } catch (Exception ex) {
             log.error("Failed to generate tests", ex);
             return "Failed to generate tests: " + ex.getMessage();
@@ -52,23 +65,64 @@ public class TestGenerator {
         }
     }
 
-    private boolean isController(ClassOrInterfaceDeclaration clazz) {
-        return clazz.getAnnotationByName("RestController").isPresent() || clazz.getAnnotationByName("Controller").isPresent();
+    private String generate(Path projectRoot, String className, String sourceCode, JobProgress progress) throws Exception {
+        progress.step(0, 2, "Indexing project symbols");
+        ProjectSymbolIndex.Description description = symbolIndex.describe(projectRoot, sourceCode);
+        ProjectSymbolIndex.Snapshot snapshot = description.snapshot();
+        TypeInfo clazz = description.types().stream()
+                .filter(type -> type.simpleName().equals(className)
+                        && (!type.isInterface() || RepositoryTestGenerator.isRepository(type)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Class not found in provided sourceCode: " + className));
+        String packageName = clazz.packageName().isEmpty() ? "com.generated" : clazz.packageName();
+
+        String testCode = RepositoryTestGenerator.isRepository(clazz)
+                ? repositoryTestGenerator.testSource(packageName, clazz, snapshot)
+                : isController(clazz)
+                ? webMvcTestSource(packageName, clazz, snapshot)
+                : serviceUnitTestSource(packageName, clazz);
+
+        progress.step(1, 2, "Writing " + className + "Test");
+        Path outputPath = projectRoot.resolve("generated-tests").resolve(className + "Test.java");
+        WorkspaceManager.writeString(projectRoot, outputPath, testCode);
+
+        return "Generated test at " + outputPath + "\nSymbol index: " + snapshot.stats() + "\n\n" + testCode;
+    }
+
+    private boolean isController(TypeInfo clazz) {
+        return clazz.hasAnnotation("RestController") || clazz.hasAnnotation("Controller");
+    }
+
+    /**
+     * Mocks are the resolved constructor dependencies; classes without an injecting constructor fall back to
+     * their private fields.
+     */
+    private List<String> dependencies(TypeInfo clazz) {
+        if (!clazz.constructorDependencies().isEmpty()) {
+            return clazz.constructorDependencies();
+        }
+        return clazz.fields().stream().map(FieldInfo::type).toList();
     }
 
-    private String serviceUnitTestSource(String packageName, ClassOrInterfaceDeclaration clazz) {
-        String className = clazz.getNameAsString();
-        String mockFields = clazz.getFields().stream()
-                .filter(FieldDeclaration::isPrivate)
-                .map(field -> "    @Mock\n    private " + field.getElementType() + " " + field.getVariable(0).getNameAsString() + ";")
+    private String serviceUnitTestSource(String packageName, TypeInfo clazz) {
+        String className = clazz.simpleName();
+        Set<String> imports = new TreeSet<>();
+        String mockFields = new LinkedHashSet<>(dependencies(clazz)).stream()
+                .map(type -> "    @Mock\n    private " + typeReference(type, packageName, imports) + " " + fieldName(type) + ";")
                 .collect(Collectors.joining("\n\n"));
 
-        List<MethodDeclaration> testableMethods = clazz.getMethods().stream().filter(MethodDeclaration::isPublic)
-                .toList();
+        List<MethodInfo> testableMethods = clazz.methods().stream().filter(MethodInfo::isPublic).toList();
 
         String methods = testableMethods.stream()
                 .map(method -> {
-                    String methodName = method.getNameAsString();
+                    String methodName = method.name();
+                    String arguments = method.parameters().stream()
+                            .map(parameter -> defaultValue(parameter.type()))
+                            .collect(Collectors.joining(", "));
+                    String act = method.returnType().equals("void")
+                            ? "subject.%s(%s);".formatted(methodName, arguments)
+                            : "%s result = subject.%s(%s);".formatted(
+                            typeReference(method.returnType(), packageName, new TreeSet<>()), methodName, arguments);
                     return """
 
                             @Test
@@ -76,12 +130,12 @@ public class TestGenerator {
                                 // arrange
 
                                 // act
-                                // var result = subject.%s();
+                                // %s
 
                                 // assert
                                 assertThat(true).isTrue();
                             }
-                            """.formatted(methodName, methodName);
+                            """.formatted(methodName, act);
                 }).collect(Collectors.joining("\n"));
 
         return """
@@ -92,7 +146,7 @@ public class TestGenerator {
                 import org.mockito.InjectMocks;
                 import org.mockito.Mock;
                 import org.mockito.junit.jupiter.MockitoExtension;
-
+                %s
                 import static org.assertj.core.api.Assertions.assertThat;
 
                 @ExtendWith(MockitoExtension.class)
@@ -105,12 +159,74 @@ public class TestGenerator {
 
                 %s
                 }
-                """.formatted(packageName, className, mockFields, className, methods);
+                """.formatted(packageName, importBlock(imports), className, mockFields, className, methods);
     }
 
-    private String webMvcTestSource(String packageName, ClassOrInterfaceDeclaration clazz) {
-        String className = clazz.getNameAsString();
-        String endpoint = "/api/" + className.replace("Controller", "").toLowerCase(Locale.ROOT) + "s";
+    private String webMvcTestSource(String packageName, TypeInfo clazz, ProjectSymbolIndex.Snapshot snapshot) {
+        String className = clazz.simpleName();
+        Set<String> imports = new TreeSet<>();
+        List<String> dependencies = dependencies(clazz);
+        String mockBeans = dependencies.isEmpty()
+                ? "    @MockBean\n    private " + className.replace("Controller", "") + "Service service;"
+                : new LinkedHashSet<>(dependencies).stream()
+                .map(type -> "    @MockBean\n    private " + typeReference(type, packageName, imports) + " " + fieldName(type) + ";")
+                .collect(Collectors.joining("\n\n"));
+
+        // Lookups only answer 200 when the mocks return something, so every query method gets a fixture.
+        List<String> stubs = new ArrayList<>();
+        boolean fullyStubbed = !dependencies.isEmpty();
+        for (String dependency : new LinkedHashSet<>(dependencies)) {
+            Optional<TypeInfo> dependencyType = snapshot.find(dependency);
+            if (dependencyType.isEmpty()) {
+                fullyStubbed = false;
+                continue;
+            }
+            for (MethodInfo method : dependencyType.get().methods()) {
+                if (!method.isPublic() || method.returnType().equals("void")) {
+                    continue;
+                }
+                String fixture = fixture(method.returnType(), packageName, snapshot, imports, 0);
+                if (fixture == null) {
+                    fullyStubbed = false;
+                    continue;
+                }
+                String matchers = method.parameters().stream()
+                        .map(parameter -> argumentMatcher(parameter.type()))
+                        .collect(Collectors.joining(", "));
+                stubs.add("        given(%s.%s(%s)).willReturn(%s);"
+                        .formatted(fieldName(dependency), method.name(), matchers, fixture));
+            }
+        }
+        String setUp = stubs.isEmpty() ? "" : """
+
+                    @BeforeEach
+                    void stubDependencies() throws Exception {
+                %s
+                    }
+                """.formatted(String.join("\n", stubs));
+        if (!stubs.isEmpty()) {
+            imports.add("org.junit.jupiter.api.BeforeEach");
+            imports.add("static org.mockito.ArgumentMatchers.*");
+            imports.add("static org.mockito.BDDMockito.given");
+        }
+        boolean lookupsStubbed = fullyStubbed;
+
+        List<MethodInfo> getEndpoints = clazz.methods().stream()
+                .filter(method -> "GET".equals(method.httpMethod()))
+                .toList();
+        String tests;
+        if (getEndpoints.isEmpty()) {
+            String endpoint = clazz.requestPath() != null
+                    ? ProjectSymbolIndex.joinPaths(clazz.requestPath(), "")
+                    : "/api/" + className.replace("Controller", "").toLowerCase(Locale.ROOT) + "s";
+            tests = getTest("findAll", endpoint, true);
+        } else {
+            tests = getEndpoints.stream()
+                    .map(method -> getTest(method.name(), method.path().replaceAll("\\{[^}]+}", "1"),
+                            lookupsStubbed || !method.path().contains("{")))
+                    .collect(Collectors.joining());
+        }
+
         return """
                 package %s;
 
@@ -119,7 +235,7 @@ public class TestGenerator {
                 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
                 import org.springframework.boot.test.mock.mockito.MockBean;
                 import org.springframework.test.web.servlet.MockMvc;
-
+                %s
                 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
                 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -129,15 +245,189 @@ public class TestGenerator {
                     @Autowired
                     private MockMvc mockMvc;
 
-                    @MockBean
-                    private %sService service;
+                %s
+                %s%s}
+                """.formatted(packageName, importBlock(imports), className, className, mockBeans, setUp, tests);
+    }
+
+    private String getTest(String methodName, String endpoint, boolean expectOk) {
+        if (!expectOk) {
+            // The lookup behind this path could not be stubbed, so the mock may legitimately answer 404.
+            return """
+
+                        @Test
+                        void %s_shouldNotFail() throws Exception {
+                            mockMvc.perform(get("%s"))
+                                    .andExpect(status().is(org.hamcrest.Matchers.lessThan(500)));
+                        }
+                    """.formatted(methodName, endpoint);
+        }
+        return """
 
                     @Test
-                    void findAll_shouldReturnOk() throws Exception {
+                    void %s_shouldReturnOk() throws Exception {
                         mockMvc.perform(get("%s"))
                                 .andExpect(status().isOk());
                     }
+                """.formatted(methodName, endpoint);
+    }
+
+    /**
+     * Returns an expression producing a non-empty value of {@code type} for stubbing a mocked query method,
+     * or {@code null} when no fixture can be built for it.
+     */
+    private String fixture(String type, String packageName, ProjectSymbolIndex.Snapshot snapshot, Set<String> imports,
+                           int depth) {
+        if (depth > 3) {
+            return null;
+        }
+        switch (type) {
+            case "boolean", "java.lang.Boolean":
+                return "true";
+            case "int", "java.lang.Integer":
+                return "1";
+            case "long", "java.lang.Long":
+                return "1L";
+            case "double", "java.lang.Double":
+                return "1d";
+            case "java.lang.String":
+                return "\"1\"";
+            case "java.math.BigDecimal":
+                return "java.math.BigDecimal.ONE";
+            case "java.time.LocalDate":
+                return "java.time.LocalDate.of(2024, 1, 1)";
+            case "java.time.LocalDateTime":
+                return "java.time.LocalDateTime.of(2024, 1, 1, 0, 0)";
+            case "java.time.Instant":
+                return "java.time.Instant.EPOCH";
+            case "java.util.UUID":
+                return "new java.util.UUID(0L, 1L)";
+            default:
+                break;
+        }
+        int generic = type.indexOf('<');
+        String raw = generic < 0 ? type : type.substring(0, generic);
+        if (generic >= 0) {
+            List<String> arguments = splitTypeArguments(type.substring(generic + 1, type.lastIndexOf('>')));
+            String element = arguments.size() == 1
+                    ? fixture(arguments.get(0), packageName, snapshot, imports, depth + 1)
+                    : null;
+            if (element == null) {
+                return null;
+            }
+            return switch (raw) {
+                case "java.util.Optional" -> {
+                    imports.add("java.util.Optional");
+                    yield "Optional.of(" + element + ")";
+                }
+                case "java.util.List", "java.util.Collection", "java.lang.Iterable" -> {
+                    imports.add("java.util.List");
+                    yield "List.of(" + element + ")";
+                }
+                case "java.util.Set" -> {
+                    imports.add("java.util.Set");
+                    yield "Set.of(" + element + ")";
                 }
-                """.formatted(packageName, className, className, className.replace("Controller", ""), endpoint);
+                default -> null;
+            };
+        }
+        TypeInfo candidate = snapshot.find(type).filter(found -> !found.isInterface()).orElse(null);
+        if (candidate == null) {
+            return null;
+        }
+        if (candidate.extendedTypes().stream().anyMatch(extended -> extended.startsWith("java.lang.Enum<"))) {
+            return typeReference(type, packageName, imports) + ".values()[0]";
+        }
+        List<String> arguments = new ArrayList<>();
+        for (String parameter : candidate.constructorDependencies()) {
+            String argument = fixture(parameter, packageName, snapshot, imports, depth + 1);
+            if (argument == null) {
+                return null;
+            }
+            arguments.add(argument);
+        }
+        return "new " + typeReference(type, packageName, imports) + "(" + String.join(", ", arguments) + ")";
+    }
+
+    private String argumentMatcher(String type) {
+        return switch (type) {
+            case "boolean" -> "anyBoolean()";
+            case "char" -> "anyChar()";
+            case "byte" -> "anyByte()";
+            case "short" -> "anyShort()";
+            case "int" -> "anyInt()";
+            case "long" -> "anyLong()";
+            case "float" -> "anyFloat()";
+            case "double" -> "anyDouble()";
+            default -> "any()";
+        };
+    }
+
+    /**
+     * Renders a resolved type for use in the generated test, collecting imports for types outside
+     * {@code java.lang} and the test's own package.
+     */
+    static String typeReference(String type, String packageName, Set<String> imports) {
+        int generic = type.indexOf('<');
+        String raw = generic < 0 ? type : type.substring(0, generic);
+        String simple = raw.substring(raw.lastIndexOf('.') + 1);
+        int lastDot = raw.lastIndexOf('.');
+        if (lastDot > 0) {
+            String typePackage = raw.substring(0, lastDot);
+            if (!typePackage.equals("java.lang") && !typePackage.equals(packageName)
+                    && Character.isLowerCase(typePackage.charAt(typePackage.lastIndexOf('.') + 1))) {
+                imports.add(raw);
+            }
+        }
+        if (generic < 0) {
+            return simple;
+        }
+        String arguments = splitTypeArguments(type.substring(generic + 1, type.lastIndexOf('>'))).stream()
+                .map(argument -> typeReference(argument, packageName, imports))
+                .collect(Collectors.joining(", "));
+        return simple + "<" + arguments + ">";
+    }
+
+    static List<String> splitTypeArguments(String arguments) {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                result.add(arguments.substring(start, i).strip());
+                start = i + 1;
+            }
+        }
+        result.add(arguments.substring(start).strip());
+        return result;
+    }
+
+    private String importBlock(Set<String> imports) {
+        if (imports.isEmpty()) {
+            return "";
+        }
+        return "\n" + imports.stream().map(name -> "import " + name + ";").collect(Collectors.joining("\n")) + "\n";
+    }
+
+    private String fieldName(String type) {
+        String simple = ProjectSymbolIndex.simpleName(type);
+        return Character.toLowerCase(simple.charAt(0)) + simple.substring(1);
+    }
+
+    static String defaultValue(String type) {
+        return switch (type) {
+            case "boolean" -> "false";
+            case "char" -> "'a'";
+            case "byte", "short", "int" -> "0";
+            case "long" -> "0L";
+            case "float" -> "0f";
+            case "double" -> "0d";
+            default -> "null";
+        };
     }
 }
@@ -0,0 +1,160 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolves the project a tool call works on and keeps every write inside a sandbox directory.
+ * <p>
+ * Each call names its project explicitly (the {@code workspaceRoot} tool parameter), so concurrent MCP sessions
+ * never share JVM-global state such as {@code user.dir}. Writes to the same project are serialized with a
+ * per-project lock; different projects proceed in parallel. Generators write through
+ * {@link #writeString(Path, Path, String)}, which keeps symbolic links inside a project from redirecting a write.
+ */
+@Component
+public class WorkspaceManager {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkspaceManager.class);
+
+    @FunctionalInterface
+    public interface ProjectTask<T> {
+        T run(Path projectRoot) throws Exception;
+    }
+
+    private static final int MAX_LINKS = 40;
+
+    private final Path baseDir;
+    private final Path realBaseDir;
+    private final Map<Path, ProjectLock> projectLocks = new ConcurrentHashMap<>();
+
+    /**
+     * A project's write lock and the number of callers holding or waiting for it, updated only inside
+     * {@link Map#compute} so the entry can be dropped once the last caller leaves.
+     */
+    private static final class ProjectLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+
+    @Autowired
+    public WorkspaceManager(@Value("${mcp.workspace.base-dir:${user.dir}}") String baseDir) {
+        this(Path.of(baseDir));
+    }
+
+    WorkspaceManager(Path baseDir) {
+        this.baseDir = baseDir.toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.baseDir);
+            this.realBaseDir = this.baseDir.toRealPath();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot initialize workspace base directory " + this.baseDir, ex);
+        }
+        log.info("Workspace sandbox at {}", this.baseDir);
+    }
+
+    public Path baseDir() {
+        return baseDir;
+    }
+
+    /**
+     * Resolves a project path, relative to the sandbox or absolute inside it. Blank means the sandbox itself.
+     * Paths escaping the sandbox, including through symbolic links, are rejected.
+     */
+    public Path resolve(String workspaceRoot) throws IOException {
+        Path candidate = workspaceRoot == null || workspaceRoot.isBlank()
+                ? baseDir
+                : baseDir.resolve(workspaceRoot.strip()).toAbsolutePath().normalize();
+        if (!candidate.startsWith(baseDir)) {
+            throw new IllegalArgumentException("Workspace root " + workspaceRoot + " is outside the sandbox " + baseDir);
+        }
+        Path existing = candidate;
+        while (existing != null && Files.notExists(existing)) {
+            existing = existing.getParent();
+        }
+        if (existing != null && !existing.toRealPath().startsWith(realBaseDir)) {
+            throw new IllegalArgumentException("Workspace root " + workspaceRoot + " resolves outside the sandbox " + baseDir);
+        }
+        return candidate;
+    }
+
+    /**
+     * Resolves the project and runs the task while holding that project's write lock.
+     */
+    public <T> T withProject(String workspaceRoot, ProjectTask<T> task) throws Exception {
+        Path projectRoot = resolve(workspaceRoot);
+        ProjectLock projectLock = projectLocks.compute(projectRoot, (key, existing) -> {
+            ProjectLock acquired = existing != null ? existing : new ProjectLock();
+            acquired.users++;
+            return acquired;
+        });
+        projectLock.lock.lock();
+        try {
+            return task.run(projectRoot);
+        } finally {
+            projectLock.lock.unlock();
+            projectLocks.computeIfPresent(projectRoot, (key, existing) -> --existing.users == 0 ? null : existing);
+        }
+    }
+
+    int lockedProjects() {
+        return projectLocks.size();
+    }
+
+    /**
+     * Creates {@code directory} and its parents. The directory must resolve, by real path, inside
+     * {@code projectRoot}, so a symbolic link such as {@code src -> /etc} cannot redirect the write.
+     */
+    static Path createDirectories(Path projectRoot, Path directory) throws IOException {
+        checkInsideProject(projectRoot, directory);
+        Files.createDirectories(directory);
+        return directory;
+    }
+
+    /**
+     * Writes {@code content} to {@code file}, creating its parent directories. The parent and the file itself,
+     * if it is a link, must resolve by real path inside {@code projectRoot}.
+     */
+    static Path writeString(Path projectRoot, Path file, String content) throws IOException {
+        createDirectories(projectRoot, file.getParent());
+        checkInsideProject(projectRoot, file);
+        Files.writeString(file, content);
+        return file;
+    }
+
+    private static void checkInsideProject(Path projectRoot, Path path) throws IOException {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        Path target = path.toAbsolutePath().normalize();
+        if (!target.startsWith(root) || !realPath(target, 0).startsWith(realPath(root, 0))) {
+            throw new IllegalArgumentException(path + " resolves outside the project " + projectRoot);
+        }
+    }
+
+    /**
+     * Real path of {@code path}, following links, with the part that does not exist yet appended as is.
+     */
+    private static Path realPath(Path path, int links) throws IOException {
+        if (Files.exists(path)) {
+            return path.toRealPath();
+        }
+        if (Files.isSymbolicLink(path)) {
+            // A dangling link: writing through it would create its target.
+            if (links > MAX_LINKS) {
+                throw new IOException("Too many levels of symbolic links: " + path);
+            }
+            return realPath(path.resolveSibling(Files.readSymbolicLink(path)).normalize(), links + 1);
+        }
+        Path parent = path.getParent();
+        return parent == null ? path : realPath(parent, links).resolve(path.getFileName());
+    }
+}
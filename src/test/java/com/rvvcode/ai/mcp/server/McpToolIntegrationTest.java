@@ -15,7 +15,7 @@ import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest
+@SpringBootTest(properties = "mcp.workspace.base-dir=${java.io.tmpdir}")
 class McpToolIntegrationTest {
 
     @Autowired
@@ -29,34 +29,33 @@ class McpToolIntegrationTest {
 
     @Test
     void tools_shouldWorkTogetherOnGeneratedProject(@TempDir Path tempDir) throws Exception {
-        Path originalUserDir = Path.of(System.getProperty("user.dir"));
         Path projectRoot = tempDir.resolve("platform-app");
 
         String bootstrapResult = projectGenerator.bootstrapProject(
                 projectRoot.toString(),
                 "com.acme.platform",
-                "REST APIs for enterprise customer workflows");
+                "REST APIs for enterprise customer workflows",
+                null, null, null);
 
         assertThat(bootstrapResult).contains("Bootstrapped enterprise project");
         assertThat(Files.exists(projectRoot.resolve("pom.xml"))).isTrue();
 
-        System.setProperty("user.dir", projectRoot.toString());
-        try {
-            String enhanceResult = domainEnhancer.enhanceDomain(
-                    "Account",
-                    Map.of("email", "String", "active", "Boolean"),
-                    List.of("java.util.Optional<AccountEntity> findByEmail(String email)"));
-            assertThat(enhanceResult).contains("Enhanced domain for Account");
-
-            Path accountService = projectRoot.resolve("src/main/java/com/acme/platform/account/AccountService.java");
-            assertThat(Files.exists(accountService)).isTrue();
-
-            String serviceSource = Files.readString(accountService);
-            String testsResult = testGenerator.generateTests("AccountService", serviceSource);
-            assertThat(testsResult).contains("AccountServiceTest");
-            assertThat(Files.exists(projectRoot.resolve("generated-tests/AccountServiceTest.java"))).isTrue();
-        } finally {
-            System.setProperty("user.dir", originalUserDir.toString());
-        }
+        String enhanceResult = domainEnhancer.enhanceDomain(
+                "Account",
+                Map.of("email", "String", "active", "Boolean"),
+                List.of("java.util.Optional<AccountEntity> findByEmail(String email)"),
+                null, null, projectRoot.toString(), null, null);
+        assertThat(enhanceResult).contains("Enhanced domain for Account");
+
+        Path accountService = projectRoot.resolve("src/main/java/com/acme/platform/account/AccountService.java");
+        assertThat(Files.exists(accountService)).isTrue();
+
+        String serviceSource = Files.readString(accountService);
+        String testsResult = testGenerator.generateTests("AccountService", serviceSource, projectRoot.toString(), null, null);
+        assertThat(testsResult).contains("AccountServiceTest");
+        assertThat(Files.exists(projectRoot.resolve("generated-tests/AccountServiceTest.java"))).isTrue();
+
+        String escaped = domainEnhancer.enhanceDomain("Account", Map.of("email", "String"), List.of(), null, null, "/etc", null, null);
+        assertThat(escaped).contains("Failed to enhance domain: Workspace root /etc is outside the sandbox");
     }
 }
@@ -0,0 +1,287 @@
+package com.rvvcode.ai.mcp.server.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Collects per-tool latencies, errors and heap samples during a load run and renders them as JSON and HTML
+ * artifacts with a stable schema, so runs of different builds can be diffed.
+ */
+class LoadReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    record ToolStats(long count, long errors, double meanMs, double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    record HeapSample(long elapsedMillis, long usedBytes, long committedBytes) {
+    }
+
+    private final Map<String, Queue<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final Queue<String> errorSamples = new ConcurrentLinkedQueue<>();
+    private final Queue<HeapSample> heap = new ConcurrentLinkedQueue<>();
+    private final AtomicLong firstCompletion = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong lastCompletion = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong missedSchedule = new AtomicLong();
+    private final AtomicLong maxScheduleLag = new AtomicLong();
+
+    /**
+     * Records a completed call; the completion time bounds the window throughput is computed over.
+     */
+    void recordSuccess(String tool, long latencyNanos) {
+        long completedAt = System.nanoTime();
+        latencies.computeIfAbsent(tool, key -> new ConcurrentLinkedQueue<>()).add(latencyNanos);
+        firstCompletion.accumulateAndGet(completedAt, Math::min);
+        lastCompletion.accumulateAndGet(completedAt, Math::max);
+    }
+
+    void recordError(String tool, long latencyNanos, String message) {
+        recordSuccess(tool, latencyNanos);
+        errors.computeIfAbsent(tool, key -> new AtomicLong()).incrementAndGet();
+        if (errorSamples.size() < 20) {
+            errorSamples.add(tool + ": " + message);
+        }
+    }
+
+    /**
+     * Records a paced call that was sent at least one interval after its scheduled time, because the
+     * session was still waiting for earlier responses.
+     */
+    void recordMissedSchedule(long lagNanos) {
+        missedSchedule.incrementAndGet();
+        maxScheduleLag.accumulateAndGet(lagNanos, Math::max);
+    }
+
+    void recordHeap(long elapsedMillis, long usedBytes, long committedBytes) {
+        heap.add(new HeapSample(elapsedMillis, usedBytes, committedBytes));
+    }
+
+    long totalRequests() {
+        return latencies.values().stream().mapToLong(Queue::size).sum();
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    long completionWindowMillis() {
+        long first = firstCompletion.get();
+        long last = lastCompletion.get();
+        return last > first ? TimeUnit.NANOSECONDS.toMillis(last - first) : 0;
+    }
+
+    /**
+     * Completed responses per second between the first and the last measured completion. The schedule is not
+     * used here: in paced mode it would just echo the target rate, however slow the server is.
+     */
+    double throughputPerSecond() {
+        long first = firstCompletion.get();
+        long last = lastCompletion.get();
+        long requests = totalRequests();
+        return requests < 2 || last <= first ? 0 : (requests - 1) * 1_000_000_000.0 / (last - first);
+    }
+
+    Map<String, ToolStats> toolStats() {
+        Map<String, ToolStats> stats = new LinkedHashMap<>();
+        latencies.keySet().stream().sorted().forEach(tool -> {
+            long[] sorted = latencies.get(tool).stream().mapToLong(Long::longValue).sorted().toArray();
+            long toolErrors = errors.getOrDefault(tool, new AtomicLong()).get();
+            stats.put(tool, new ToolStats(sorted.length, toolErrors,
+                    millis(Arrays.stream(sorted).average().orElse(0)),
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(percentile(sorted, 0.999)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+        });
+        return stats;
+    }
+
+    /**
+     * Writes {@code mcp-load-<timestamp>.json/.html} plus {@code latest.json/.html} and returns the JSON path.
+     */
+    Path write(LoadTestSettings settings, Instant startedAt, long measuredMillis) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("schemaVersion", 2);
+        report.put("build", Map.of(
+                "version", System.getProperty("mcp.load.buildVersion", "unknown"),
+                "commit", System.getProperty("mcp.load.commit", "unknown"),
+                "javaVersion", System.getProperty("java.version"),
+                "availableProcessors", Runtime.getRuntime().availableProcessors(),
+                "maxHeapBytes", Runtime.getRuntime().maxMemory()));
+        report.put("startedAt", startedAt.toString());
+        report.put("config", Map.of(
+                "sessions", settings.sessions(),
+                "warmupSeconds", settings.warmupSeconds(),
+                "durationSeconds", settings.durationSeconds(),
+                "targetRate", settings.rate(),
+                "mix", settings.mix()));
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("requests", totalRequests());
+        totals.put("errors", totalErrors());
+        totals.put("measuredMillis", measuredMillis);
+        totals.put("completionWindowMillis", completionWindowMillis());
+        totals.put("throughputPerSecond", throughputPerSecond());
+        totals.put("missedSchedule", missedSchedule.get());
+        totals.put("maxScheduleLagMillis", TimeUnit.NANOSECONDS.toMillis(maxScheduleLag.get()));
+        report.put("totals", totals);
+        report.put("tools", toolStats());
+        report.put("heap", new ArrayList<>(heap));
+        report.put("errorSamples", new ArrayList<>(errorSamples));
+        if (settings.baseline() != null && Files.exists(settings.baseline())) {
+            report.put("comparison", compare(MAPPER.readTree(settings.baseline().toFile()), MAPPER.valueToTree(report)));
+        }
+
+        Files.createDirectories(settings.reportDir());
+        String json = MAPPER.writeValueAsString(report);
+        String html = html(MAPPER.readTree(json));
+        String baseName = "mcp-load-" + FILE_TIMESTAMP.format(startedAt);
+        Path jsonPath = settings.reportDir().resolve(baseName + ".json");
+        Files.writeString(jsonPath, json);
+        Files.writeString(settings.reportDir().resolve(baseName + ".html"), html);
+        Files.writeString(settings.reportDir().resolve("latest.json"), json);
+        Files.writeString(settings.reportDir().resolve("latest.html"), html);
+        return jsonPath;
+    }
+
+    private Map<String, Object> compare(JsonNode baseline, JsonNode current) {
+        Map<String, Object> comparison = new LinkedHashMap<>();
+        comparison.put("baselineStartedAt", baseline.path("startedAt").asText());
+        comparison.put("throughputChangePercent", changePercent(
+                baseline.path("totals").path("throughputPerSecond").asDouble(),
+                current.path("totals").path("throughputPerSecond").asDouble()));
+        Map<String, Object> tools = new LinkedHashMap<>();
+        current.path("tools").fields().forEachRemaining(entry -> {
+            JsonNode before = baseline.path("tools").path(entry.getKey());
+            if (!before.isMissingNode()) {
+                tools.put(entry.getKey(), Map.of(
+                        "p50ChangePercent", changePercent(before.path("p50Ms").asDouble(), entry.getValue().path("p50Ms").asDouble()),
+                        "p99ChangePercent", changePercent(before.path("p99Ms").asDouble(), entry.getValue().path("p99Ms").asDouble()),
+                        "p999ChangePercent", changePercent(before.path("p999Ms").asDouble(), entry.getValue().path("p999Ms").asDouble())));
+            }
+        });
+        comparison.put("tools", tools);
+        return comparison;
+    }
+
+    private String html(JsonNode report) {
+        StringBuilder rows = new StringBuilder();
+        report.path("tools").fields().forEachRemaining(entry -> {
+            JsonNode stats = entry.getValue();
+            JsonNode change = report.path("comparison").path("tools").path(entry.getKey());
+            rows.append("<tr><td>%s</td><td>%d</td><td>%d</td><td>%.2f</td><td>%.2f%s</td><td>%.2f%s</td><td>%.2f%s</td><td>%.2f</td></tr>\n"
+                    .formatted(entry.getKey(), stats.path("count").asLong(), stats.path("errors").asLong(),
+                            stats.path("meanMs").asDouble(),
+                            stats.path("p50Ms").asDouble(), delta(change.path("p50ChangePercent")),
+                            stats.path("p99Ms").asDouble(), delta(change.path("p99ChangePercent")),
+                            stats.path("p999Ms").asDouble(), delta(change.path("p999ChangePercent")),
+                            stats.path("maxMs").asDouble()));
+        });
+        JsonNode totals = report.path("totals");
+        return """
+                <!DOCTYPE html>
+                <html>
+                <head>
+                <meta charset="utf-8">
+                <title>MCP load test %s</title>
+                <style>
+                body { font-family: sans-serif; margin: 2em; }
+                table { border-collapse: collapse; }
+                td, th { border: 1px solid #ccc; padding: 4px 10px; text-align: right; }
+                td:first-child, th:first-child { text-align: left; }
+                </style>
+                </head>
+                <body>
+                <h1>MCP load test</h1>
+                <p>Started %s &middot; build %s (%s) &middot; %d sessions &middot; target rate %s/s</p>
+                <p><strong>%.1f req/s%s</strong> &middot; %d requests &middot; %d errors &middot; %d sent behind schedule (max lag %d ms)</p>
+                <table>
+                <tr><th>Tool</th><th>Count</th><th>Errors</th><th>Mean ms</th><th>p50 ms</th><th>p99 ms</th><th>p99.9 ms</th><th>Max ms</th></tr>
+                %s</table>
+                <h2>Heap used (MB) over time</h2>
+                %s
+                </body>
+                </html>
+                """.formatted(report.path("startedAt").asText(), report.path("startedAt").asText(),
+                report.path("build").path("version").asText(), report.path("build").path("commit").asText(),
+                report.path("config").path("sessions").asInt(), report.path("config").path("targetRate").asText(),
+                totals.path("throughputPerSecond").asDouble(), delta(report.path("comparison").path("throughputChangePercent")),
+                totals.path("requests").asLong(), totals.path("errors").asLong(), totals.path("missedSchedule").asLong(),
+                totals.path("maxScheduleLagMillis").asLong(), rows, heapChart(report.path("heap")));
+    }
+
+    private String heapChart(JsonNode samples) {
+        if (samples.isEmpty()) {
+            return "<p>No samples</p>";
+        }
+        int width = 800;
+        int height = 200;
+        long lastMillis = Math.max(1, samples.get(samples.size() - 1).path("elapsedMillis").asLong());
+        long maxBytes = 1;
+        for (JsonNode sample : samples) {
+            maxBytes = Math.max(maxBytes, sample.path("committedBytes").asLong());
+        }
+        List<String> used = new ArrayList<>();
+        List<String> committed = new ArrayList<>();
+        for (JsonNode sample : samples) {
+            double x = sample.path("elapsedMillis").asLong() * (double) width / lastMillis;
+            used.add("%.1f,%.1f".formatted(x, height - sample.path("usedBytes").asLong() * (double) height / maxBytes));
+            committed.add("%.1f,%.1f".formatted(x, height - sample.path("committedBytes").asLong() * (double) height / maxBytes));
+        }
+        return """
+                <svg width="%d" height="%d" style="border:1px solid #ccc">
+                <polyline fill="none" stroke="#999" stroke-dasharray="4" points="%s"/>
+                <polyline fill="none" stroke="#c33" points="%s"/>
+                </svg>
+                <p>Peak committed %d MB; solid line is used heap, dashed line committed heap, over %d ms.</p>
+                """.formatted(width, height, String.join(" ", committed), String.join(" ", used),
+                maxBytes / (1024 * 1024), lastMillis);
+    }
+
+    private static String delta(JsonNode changePercent) {
+        return changePercent.isMissingNode() ? "" : " (%+.1f%%)".formatted(changePercent.asDouble());
+    }
+
+    private static double changePercent(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100.0 / before;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.min(Math.max(index, 0), sorted.length - 1)];
+    }
+
+    private static double millis(double nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    @Override
+    public String toString() {
+        return toolStats().entrySet().stream()
+                .map(entry -> entry.getKey() + " " + entry.getValue())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.rvvcode.ai.mcp.server.load;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load-test knobs, read from {@code mcp.load.*} system properties (forwarded by the {@code loadTest} Gradle task).
+ *
+ * @param sessions          concurrent MCP client sessions, each with its own SSE connection
+ * @param warmupSeconds     calls made during warm-up are executed but not recorded
+ * @param durationSeconds   measured run length
+ * @param rate              target calls per second across all sessions; {@code 0} runs closed-loop, as fast as possible
+ * @param mix               relative weight of each tool in the call mix
+ * @param heapSampleMillis  heap sampling interval
+ * @param maxErrorRate      error ratio above which the run fails
+ * @param reportDir         where the JSON and HTML artifacts are written
+ * @param baseline          optional JSON report of an earlier build to compare against
+ */
+record LoadTestSettings(int sessions, int warmupSeconds, int durationSeconds, double rate, Map<String, Integer> mix,
+                        long heapSampleMillis, double maxErrorRate, Path reportDir, Path baseline) {
+
+    static LoadTestSettings fromSystemProperties() {
+        String baseline = System.getProperty("mcp.load.baseline", "");
+        return new LoadTestSettings(
+                Integer.getInteger("mcp.load.sessions", 8),
+                Integer.getInteger("mcp.load.warmupSeconds", 5),
+                Integer.getInteger("mcp.load.durationSeconds", 20),
+                Double.parseDouble(System.getProperty("mcp.load.rate", "40")),
+                parseMix(System.getProperty("mcp.load.mix", "bootstrap_project=1,enhance_domain=3,generate_tests=6")),
+                Long.getLong("mcp.load.heapSampleMillis", 250),
+                Double.parseDouble(System.getProperty("mcp.load.maxErrorRate", "0.01")),
+                Path.of(System.getProperty("mcp.load.reportDir", "build/reports/mcp-load")),
+                baseline.isBlank() ? null : Path.of(baseline));
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].strip()) : 1;
+            if (weight > 0) {
+                mix.put(parts[0].strip(), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("mcp.load.mix must contain at least one tool with a positive weight");
+        }
+        return mix;
+    }
+}
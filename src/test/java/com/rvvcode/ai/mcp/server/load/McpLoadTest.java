@@ -0,0 +1,194 @@
+package com.rvvcode.ai.mcp.server.load;
+
+import com.rvvcode.ai.mcp.server.service.DomainEnhancer;
+import com.rvvcode.ai.mcp.server.service.ProjectGenerator;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the running server through its real webmvc SSE transport with concurrent MCP client sessions.
+ * Excluded from {@code gradle test}; run with {@code gradle loadTest} and tune via {@code -Pmcp.load.*}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "mcp.workspace.base-dir=${java.io.tmpdir}")
+class McpLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(McpLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProjectGenerator projectGenerator;
+
+    @Autowired
+    private DomainEnhancer domainEnhancer;
+
+    @Test
+    void concurrentSessions_shouldSustainToolMix(@TempDir Path workspace) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        Path sharedProject = workspace.resolve("load-shared");
+
+        projectGenerator.bootstrapProject(sharedProject.toString(), "com.load.shared", "Load test workspace", null, null, null);
+        List<McpSyncClient> clients = new ArrayList<>();
+        ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService sessions = Executors.newFixedThreadPool(settings.sessions());
+        try {
+            domainEnhancer.enhanceDomain("Account", Map.of("email", "String"),
+                    List.of("java.util.Optional<AccountEntity> findByEmail(String email)"), null, null, sharedProject.toString(), null, null);
+            String serviceSource = Files.readString(sharedProject.resolve("src/main/java/com/load/shared/account/AccountService.java"));
+
+            for (int i = 0; i < settings.sessions(); i++) {
+                McpSyncClient client = McpClient.sync(HttpClientSseClientTransport.builder("http://localhost:" + port).build())
+                        .requestTimeout(Duration.ofSeconds(60))
+                        .build();
+                client.initialize();
+                clients.add(client);
+            }
+
+            LoadReport report = new LoadReport();
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+            heapSampler.scheduleAtFixedRate(() -> {
+                MemoryUsage usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+                report.recordHeap(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), usage.getUsed(), usage.getCommitted());
+            }, 0, settings.heapSampleMillis(), TimeUnit.MILLISECONDS);
+
+            Instant startedAt = Instant.now();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < clients.size(); i++) {
+                int session = i;
+                McpSyncClient client = clients.get(i);
+                futures.add(sessions.submit(() -> runSession(session, client, settings, report, workspace, serviceSource,
+                        start, measureFrom, end)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long measuredMillis = TimeUnit.NANOSECONDS.toMillis(end - measureFrom);
+            heapSampler.shutdown();
+
+            Path jsonReport = report.write(settings, startedAt, measuredMillis);
+            log.info("MCP load test: {} requests, {} errors, {} req/s, report {}\n{}", report.totalRequests(),
+                    report.totalErrors(), "%.1f".formatted(report.throughputPerSecond()), jsonReport, report);
+
+            assertThat(report.totalRequests()).isPositive();
+            assertThat((double) report.totalErrors() / report.totalRequests()).isLessThanOrEqualTo(settings.maxErrorRate());
+        } finally {
+            heapSampler.shutdownNow();
+            sessions.shutdownNow();
+            clients.forEach(McpSyncClient::closeGracefully);
+        }
+    }
+
+    /**
+     * Paces calls on a fixed schedule and measures latency from the scheduled send time, so a slow server
+     * shows up as latency rather than as a silently reduced request rate.
+     */
+    private void runSession(int session, McpSyncClient client, LoadTestSettings settings, LoadReport report,
+                            Path workspace, String serviceSource, long start, long measureFrom, long end) {
+        long intervalNanos = settings.rate() > 0 ? (long) (settings.sessions() * 1_000_000_000L / settings.rate()) : 0;
+        // Stagger sessions so paced calls do not arrive in lockstep.
+        long scheduled = start + (intervalNanos == 0 ? 0 : intervalNanos * session / settings.sessions());
+        int sequence = 0;
+        while (scheduled < end) {
+            if (intervalNanos > 0) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                scheduled = System.nanoTime();
+            }
+            String tool = pickTool(settings.mix());
+            McpSchema.CallToolRequest request = new McpSchema.CallToolRequest(tool,
+                    arguments(tool, session, sequence++, workspace, serviceSource));
+            boolean measured = scheduled >= measureFrom;
+            long lag = System.nanoTime() - scheduled;
+            if (measured && intervalNanos > 0 && lag >= intervalNanos) {
+                report.recordMissedSchedule(lag);
+            }
+            try {
+                McpSchema.CallToolResult result = client.callTool(request);
+                long latency = System.nanoTime() - scheduled;
+                String text = result.content().stream()
+                        .filter(McpSchema.TextContent.class::isInstance)
+                        .map(content -> ((McpSchema.TextContent) content).text())
+                        .collect(Collectors.joining());
+                if (measured && (Boolean.TRUE.equals(result.isError()) || text.contains("Failed to"))) {
+                    report.recordError(tool, latency, text.lines().findFirst().orElse(""));
+                } else if (measured) {
+                    report.recordSuccess(tool, latency);
+                }
+            } catch (RuntimeException ex) {
+                if (measured) {
+                    report.recordError(tool, System.nanoTime() - scheduled, ex.toString());
+                }
+            }
+            scheduled += intervalNanos;
+        }
+    }
+
+    private Map<String, Object> arguments(String tool, int session, int sequence, Path workspace, String serviceSource) {
+        return switch (tool) {
+            case "bootstrap_project" -> Map.of(
+                    "projectName", workspace.resolve("load-" + session + "-" + sequence).toString(),
+                    "basePackage", "com.load.s" + session,
+                    "apiRequirements", "Load test project");
+            case "enhance_domain" -> Map.of(
+                    "entityName", "Load" + session,
+                    "fields", Map.of("email", "String", "status", "String", "createdAt", "java.time.LocalDateTime"),
+                    "repositoryMethods", List.of(
+                            "java.util.Optional<Load" + session + "Entity> findByEmail(String email)",
+                            "java.util.List<Load" + session + "Entity> findByStatusAndCreatedAtAfter(String status, java.time.LocalDateTime createdAt)"),
+                    "workspaceRoot", workspace.resolve("load-shared").toString());
+            case "generate_tests" -> Map.of("className", "AccountService", "sourceCode", serviceSource,
+                    "workspaceRoot", workspace.resolve("load-shared").toString());
+            default -> throw new IllegalArgumentException("Unsupported tool in mcp.load.mix: " + tool);
+        };
+    }
+
+    private String pickTool(Map<String, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+}
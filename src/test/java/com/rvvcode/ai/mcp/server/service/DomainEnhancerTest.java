@@ -1,10 +1,13 @@
 package com.rvvcode.ai.mcp.server.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,39 +15,241 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class DomainEnhancerTest {
 
-    private final DomainEnhancer domainEnhancer = new DomainEnhancer();
+    private final JobManager jobManager = new JobManager(1, 8, 100, Duration.ofHours(1), "", new ObjectMapper());
 
     @Test
     void enhanceDomain_shouldGenerateFeatureFilesWithRepositoryMethods(@TempDir Path tempDir) throws Exception {
-        Path originalUserDir = Path.of(System.getProperty("user.dir"));
         Path projectRoot = tempDir.resolve("domain-project");
         Files.createDirectories(projectRoot.resolve("src/main/java/com/example/demo"));
         Files.writeString(projectRoot.resolve("src/main/java/com/example/demo/Application.java"),
                 "package com.example.demo; public class Application {}\n");
 
-        System.setProperty("user.dir", projectRoot.toString());
-        try {
-            String result = domainEnhancer.enhanceDomain(
-                    "Customer",
-                    Map.of("email", "String", "status", "String"),
-                    List.of("java.util.Optional<CustomerEntity> findByEmail(String email)", "java.util.List<CustomerEntity> findByStatus(String status)"));
-
-            Path featureDir = projectRoot.resolve("src/main/java/com/example/demo/customer");
-            assertThat(result).contains("Enhanced domain for Customer");
-            assertThat(Files.exists(featureDir.resolve("CustomerEntity.java"))).isTrue();
-            assertThat(Files.exists(featureDir.resolve("CustomerDto.java"))).isTrue();
-            assertThat(Files.exists(featureDir.resolve("CustomerMapper.java"))).isTrue();
-            assertThat(Files.exists(featureDir.resolve("CustomerRepository.java"))).isTrue();
-            assertThat(Files.exists(featureDir.resolve("CustomerService.java"))).isTrue();
-            assertThat(Files.exists(featureDir.resolve("CustomerController.java"))).isTrue();
-
-            String repository = Files.readString(featureDir.resolve("CustomerRepository.java"));
-            assertThat(repository).contains("findByEmail").contains("findByStatus");
-
-            String service = Files.readString(featureDir.resolve("CustomerService.java"));
-            assertThat(service).contains("Entering CustomerService.findAll").contains("Exiting CustomerService.findAll");
-        } finally {
-            System.setProperty("user.dir", originalUserDir.toString());
-        }
+        DomainEnhancer domainEnhancer = new DomainEnhancer(new WorkspaceManager(tempDir), jobManager);
+        String result = domainEnhancer.enhanceDomain(
+                "Customer",
+                Map.of("email", "String", "status", "String"),
+                List.of("java.util.Optional<CustomerEntity> findByEmail(String email)", "java.util.List<CustomerEntity> findByStatus(String status)"),
+                null, null, projectRoot.toString(), null, null);
+
+        Path featureDir = projectRoot.resolve("src/main/java/com/example/demo/customer");
+        assertThat(result).contains("Enhanced domain for Customer");
+        assertThat(Files.exists(featureDir.resolve("CustomerEntity.java"))).isTrue();
+        assertThat(Files.exists(featureDir.resolve("CustomerDto.java"))).isTrue();
+        assertThat(Files.exists(featureDir.resolve("CustomerMapper.java"))).isTrue();
+        assertThat(Files.exists(featureDir.resolve("CustomerRepository.java"))).isTrue();
+        assertThat(Files.exists(featureDir.resolve("CustomerService.java"))).isTrue();
+        assertThat(Files.exists(featureDir.resolve("CustomerController.java"))).isTrue();
+
+        String repository = Files.readString(featureDir.resolve("CustomerRepository.java"));
+        assertThat(repository).contains("findByEmail").contains("findByStatus");
+
+        String service = Files.readString(featureDir.resolve("CustomerService.java"));
+        assertThat(service).contains("Entering CustomerService.findAll").contains("Exiting CustomerService.findAll");
+
+        assertThat(Files.readString(featureDir.resolve("CustomerEntity.java"))).contains("@Version");
+        assertThat(repository).contains("String collectionVersion();").contains("Optional<Long> findVersionById(@Param(\"id\") Long id);");
+        String controller = Files.readString(featureDir.resolve("CustomerController.java"));
+        assertThat(controller).contains("request.checkNotModified(etag)")
+                .contains("HttpStatus.NOT_MODIFIED")
+                .contains("CacheControl.maxAge(Duration.ofSeconds(30))");
+    }
+
+    @Test
+    void enhanceDomain_shouldGenerateFlywayMigrationWithIndexesDerivedFromFinders(@TempDir Path tempDir) throws Exception {
+        Path projectRoot = tempDir.resolve("migration-project");
+        Files.createDirectories(projectRoot.resolve("src/main/java/com/example/demo"));
+        Files.writeString(projectRoot.resolve("src/main/java/com/example/demo/Application.java"),
+                "package com.example.demo; public class Application {}\n");
+
+        DomainEnhancer domainEnhancer = new DomainEnhancer(new WorkspaceManager(tempDir), jobManager);
+        String result = domainEnhancer.enhanceDomain(
+                "Shipment",
+                shipmentFields(),
+                List.of("java.util.Optional<ShipmentEntity> findByEmail(String email)",
+                        "java.util.List<ShipmentEntity> findByStatusAndCreatedAtAfter(String status, java.time.LocalDateTime createdAt)",
+                        "java.util.List<ShipmentEntity> findByStatus(String status)"),
+                null, null, projectRoot.toString(), null, null);
+
+        Path migration = projectRoot.resolve("src/main/resources/db/migration/V1__create_shipment.sql");
+        assertThat(result).contains("Schema migration: " + migration);
+        String sql = Files.readString(migration);
+        assertThat(sql).contains("create table shipment (")
+                .contains("version number(19) default 0 not null")
+                .contains("created_at timestamp")
+                .contains("create index ix_shipment_email on shipment (email);")
+                .contains("create index ix_shipment_status_created_at on shipment (status, created_at);")
+                .doesNotContain("ix_shipment_status on");
+
+        String repository = Files.readString(projectRoot.resolve("src/main/java/com/example/demo/shipment/ShipmentRepository.java"));
+        assertThat(repository).contains("findByStatusAndCreatedAtAfter(String status, java.time.LocalDateTime createdAt);");
+
+        String rerun = domainEnhancer.enhanceDomain(
+                "Shipment",
+                shipmentFields(),
+                List.of("java.util.List<ShipmentEntity> findByEmailOrderByCreatedAtDesc(String email)",
+                        "java.util.List<ShipmentEntity> findByStatusAndCreatedAtBefore(String status, java.time.LocalDateTime createdAt)"),
+                null, null, projectRoot.toString(), null, null);
+
+        Path indexMigration = projectRoot.resolve("src/main/resources/db/migration/V2__add_shipment_indexes.sql");
+        assertThat(rerun).contains("Schema migration: " + indexMigration);
+        assertThat(Files.readString(indexMigration))
+                .doesNotContain("create table")
+                .doesNotContain("(status, created_at)")
+                .contains("create index ix_shipment_email_created_at on shipment (email, created_at);");
+
+        String upToDate = domainEnhancer.enhanceDomain("Shipment", shipmentFields(),
+                List.of("java.util.List<ShipmentEntity> findByStatus(String status)"), null, null, projectRoot.toString(), null, null);
+        assertThat(upToDate).contains("Schema migration: up to date");
+    }
+
+    @Test
+    void enhanceDomain_shouldGenerateLiquibaseChangelogAndRejectInvalidSignatures(@TempDir Path tempDir) throws Exception {
+        Path projectRoot = tempDir.resolve("liquibase-project");
+        Files.createDirectories(projectRoot.resolve("src/main/java/com/example/demo"));
+        Files.writeString(projectRoot.resolve("src/main/java/com/example/demo/Application.java"),
+                "package com.example.demo; public class Application {}\n");
+
+        DomainEnhancer domainEnhancer = new DomainEnhancer(new WorkspaceManager(tempDir), jobManager);
+        String rejected = domainEnhancer.enhanceDomain("Invoice", Map.of("number", "String"), List.of(),
+                "liquibase", null, projectRoot.toString(), null, null);
+        assertThat(rejected).contains("Failed to enhance domain: Migration tool liquibase requires a liquibase-core dependency");
+        assertThat(Files.exists(projectRoot.resolve("src/main/java/com/example/demo/invoice"))).isFalse();
+
+        Files.writeString(projectRoot.resolve("pom.xml"),
+                "<project><dependencies><dependency><artifactId>liquibase-core</artifactId></dependency></dependencies></project>\n");
+        String result = domainEnhancer.enhanceDomain(
+                "Invoice",
+                Map.of("number", "String"),
+                List.of("java.util.Optional<InvoiceEntity> findByNumber(String number)"),
+                "liquibase", null, projectRoot.toString(), null, null);
+
+        Path changelog = projectRoot.resolve("src/main/resources/db/changelog/changes/001-create-invoice.sql");
+        assertThat(result).contains("Schema migration: " + changelog);
+        assertThat(Files.readString(changelog)).startsWith("--liquibase formatted sql")
+                .contains("create index ix_invoice_number on invoice (number);");
+        assertThat(Files.exists(projectRoot.resolve("src/main/resources/db/changelog/db.changelog-master.yaml"))).isTrue();
+
+        String invalid = domainEnhancer.enhanceDomain("Invoice", Map.of("number", "String"),
+                List.of("not a method("), null, null, projectRoot.toString(), null, null);
+        assertThat(invalid).contains("Failed to enhance domain: Invalid repository method signature");
+    }
+
+    @Test
+    void enhanceDomain_shouldGenerateStreamingExportWhenRequested(@TempDir Path tempDir) throws Exception {
+        Path projectRoot = tempDir.resolve("export-project");
+        Files.createDirectories(projectRoot.resolve("src/main/java/com/example/demo"));
+        Files.writeString(projectRoot.resolve("src/main/java/com/example/demo/Application.java"),
+                "package com.example.demo; public class Application {}\n");
+
+        DomainEnhancer domainEnhancer = new DomainEnhancer(new WorkspaceManager(tempDir), jobManager);
+        domainEnhancer.enhanceDomain("Shipment", shipmentFields(), List.of(), null, true, projectRoot.toString(), null, null);
+
+        Path featureDir = projectRoot.resolve("src/main/java/com/example/demo/shipment");
+        assertThat(Files.readString(featureDir.resolve("ShipmentRepository.java")))
+                .contains("HibernateHints.HINT_FETCH_SIZE")
+                .contains("Stream<ShipmentEntity> streamAll();");
+        assertThat(Files.readString(featureDir.resolve("ShipmentService.java")))
+                .contains("@Transactional(readOnly = true)")
+                .contains("public long exportNdjson(OutputStream out)")
+                .contains("entityManager.detach(entity);");
+        assertThat(Files.readString(featureDir.resolve("ShipmentController.java")))
+                .contains("produces = MediaType.APPLICATION_NDJSON_VALUE")
+                .contains("StreamingResponseBody");
+        assertThat(Files.readString(projectRoot.resolve("src/test/java/com/example/demo/shipment/ShipmentExportStreamingTest.java")))
+                .contains("insert into shipment (version, email, status, created_at) select 0, 'value-' || x, 'value-' || x, current_timestamp")
+                .contains("MAX_RETAINED_HEAP_GROWTH");
+
+        domainEnhancer.enhanceDomain("Parcel", Map.of("code", "String"), List.of(), null, null, projectRoot.toString(), null, null);
+        assertThat(Files.readString(projectRoot.resolve("src/main/java/com/example/demo/parcel/ParcelService.java")))
+                .doesNotContain("exportNdjson");
+        assertThat(Files.exists(projectRoot.resolve("src/test/java/com/example/demo/parcel/ParcelExportStreamingTest.java"))).isFalse();
+    }
+
+    @Test
+    void enhanceDomain_shouldGenerateLazyAssociationsWithFetchPlansAndQueryCountTest(@TempDir Path tempDir) throws Exception {
+        Path projectRoot = tempDir.resolve("association-project");
+        Files.createDirectories(projectRoot.resolve("src/main/java/com/example/demo"));
+        Files.writeString(projectRoot.resolve("src/main/java/com/example/demo/Application.java"),
+                "package com.example.demo; public class Application {}\n");
+
+        DomainEnhancer domainEnhancer = new DomainEnhancer(new WorkspaceManager(tempDir), jobManager);
+        Map<String, String> carrierFields = new LinkedHashMap<>();
+        carrierFields.put("name", "String");
+        carrierFields.put("shipments", "OneToMany:Shipment");
+        domainEnhancer.enhanceDomain("Carrier", carrierFields, List.of(), null, null, projectRoot.toString(), null, null);
+        Map<String, String> fields = shipmentFields();
+        fields.put("carrier", "ManyToOne:Carrier");
+        domainEnhancer.enhanceDomain("Shipment", fields, List.of(), null, null, projectRoot.toString(), null, null);
+
+        Path javaRoot = projectRoot.resolve("src/main/java/com/example/demo");
+        assertThat(Files.readString(javaRoot.resolve("carrier/CarrierEntity.java")))
+                .contains("import com.example.demo.shipment.ShipmentEntity;")
+                .contains("@OneToMany(mappedBy = \"carrier\", fetch = FetchType.LAZY)")
+                .contains("@BatchSize(size = ASSOCIATION_BATCH_SIZE)")
+                .contains("private List<ShipmentEntity> shipments = new ArrayList<>();");
+        assertThat(Files.readString(javaRoot.resolve("carrier/CarrierRepository.java")))
+                .contains("@EntityGraph(attributePaths = {\"shipments\"})")
+                .contains("Optional<CarrierEntity> findWithShipmentsById(Long id);");
+        assertThat(Files.readString(javaRoot.resolve("shipment/ShipmentEntity.java")))
+                .contains("@ManyToOne(fetch = FetchType.LAZY)")
+                .contains("@JoinColumn(name = \"carrier_id\")");
+        assertThat(Files.readString(javaRoot.resolve("shipment/ShipmentDto.java"))).contains("private Long carrierId;");
+        assertThat(Files.readString(javaRoot.resolve("shipment/ShipmentMapper.java")))
+                .contains("@Mapping(target = \"carrierId\", source = \"carrier.id\")");
+        assertThat(Files.readString(javaRoot.resolve("shipment/ShipmentRepository.java")))
+                .contains("List<ShipmentEntity> findAllWithCarrierBy();");
+        assertThat(Files.readString(projectRoot.resolve("src/test/java/com/example/demo/shipment/ShipmentQueryCountTest.java")))
+                .contains("hibernate.generate_statistics=true")
+                .contains("statistics.getPrepareStatementCount()");
+
+        assertThat(Files.readString(projectRoot.resolve("src/main/resources/db/migration/V2__create_shipment.sql")))
+                .contains("carrier_id number(19) constraint fk_shipment_carrier_id references carrier (id)")
+                .contains("create index ix_shipment_carrier_id on shipment (carrier_id);");
+
+        String invalid = domainEnhancer.enhanceDomain("Shipment", Map.of("tags", "ManyToMany:Tag"), List.of(), null, null, projectRoot.toString(), null, null);
+        assertThat(invalid).contains("Failed to enhance domain: Unsupported association for field tags");
+    }
+
+    @Test
+    void enhanceDomain_shouldAddNewColumnsToExistingTableBeforeIndexingThem(@TempDir Path tempDir) throws Exception {
+        Path projectRoot = tempDir.resolve("evolving-project");
+        Files.createDirectories(projectRoot.resolve("src/main/java/com/example/demo"));
+        Files.writeString(projectRoot.resolve("src/main/java/com/example/demo/Application.java"),
+                "package com.example.demo; public class Application {}\n");
+        DomainEnhancer domainEnhancer = new DomainEnhancer(new WorkspaceManager(tempDir), jobManager);
+        domainEnhancer.enhanceDomain("Carrier", Map.of("name", "String"), List.of(), null, null, projectRoot.toString(), null, null);
+        domainEnhancer.enhanceDomain("Shipment", Map.of("email", "String"), List.of(), null, null, projectRoot.toString(), null, null);
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("email", "String");
+        fields.put("status", "String");
+        fields.put("weight", "java.math.BigDecimal");
+        fields.put("carrier", "ManyToOne:Carrier");
+        String result = domainEnhancer.enhanceDomain("Shipment", fields,
+                List.of("java.util.List<ShipmentEntity> findByStatus(String status)"), null, null, projectRoot.toString(), null, null);
+
+        Path migration = projectRoot.resolve("src/main/resources/db/migration/V3__alter_shipment.sql");
+        assertThat(result).contains("Schema migration: " + migration);
+        String sql = Files.readString(migration);
+        assertThat(sql).doesNotContain("create table").doesNotContain("add email");
+        assertThat(sql).startsWith("""
+                alter table shipment add status varchar2(255);
+                alter table shipment add weight number(19,2);
+                alter table shipment add carrier_id number(19) constraint fk_shipment_carrier_id references carrier (id);
+                """);
+        assertThat(sql).contains("create index ix_shipment_carrier_id on shipment (carrier_id);")
+                .contains("create index ix_shipment_status on shipment (status);");
+
+        String upToDate = domainEnhancer.enhanceDomain("Shipment", fields,
+                List.of("java.util.List<ShipmentEntity> findByStatus(String status)"), null, null, projectRoot.toString(), null, null);
+        assertThat(upToDate).contains("Schema migration: up to date");
+    }
+
+    private Map<String, String> shipmentFields() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("email", "String");
+        fields.put("status", "String");
+        fields.put("createdAt", "java.time.LocalDateTime");
+        return fields;
     }
 }
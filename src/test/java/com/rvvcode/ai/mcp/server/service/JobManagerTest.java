@@ -0,0 +1,195 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rvvcode.ai.mcp.server.dto.JobStatus;
+import com.rvvcode.ai.mcp.server.dto.JobStatus.Priority;
+import com.rvvcode.ai.mcp.server.dto.JobStatus.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobManagerTest {
+
+    private static final Duration AWAIT = Duration.ofSeconds(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseBlockedJobs() {
+        release.countDown();
+    }
+
+    @Test
+    void submit_shouldRunWaitingJobsByPriorityThenSubmissionOrder() throws Exception {
+        JobManager jobManager = new JobManager(1, 8, 100, Duration.ofHours(1), "", objectMapper);
+        List<String> order = new CopyOnWriteArrayList<>();
+        String blocker = jobManager.submit("blocker", Priority.NORMAL, null, this::block).jobId();
+        awaitState(jobManager, blocker, State.RUNNING);
+
+        List<String> ids = List.of(
+                jobManager.submit("low", Priority.LOW, null, recording(order, "low")).jobId(),
+                jobManager.submit("normal-1", Priority.NORMAL, null, recording(order, "normal-1")).jobId(),
+                jobManager.submit("high", Priority.HIGH, null, recording(order, "high")).jobId(),
+                jobManager.submit("normal-2", Priority.NORMAL, null, recording(order, "normal-2")).jobId());
+        assertThat(jobManager.status(ids.get(0)).state()).isEqualTo(State.QUEUED);
+        release.countDown();
+
+        for (String id : ids) {
+            assertThat(awaitTerminal(jobManager, id).state()).isEqualTo(State.SUCCEEDED);
+        }
+        assertThat(order).containsExactly("high", "normal-1", "normal-2", "low");
+    }
+
+    @Test
+    void submit_shouldRejectWhenQueueIsFull() throws Exception {
+        JobManager jobManager = new JobManager(1, 2, 100, Duration.ofHours(1), "", objectMapper);
+        String blocker = jobManager.submit("blocker", Priority.NORMAL, null, this::block).jobId();
+        awaitState(jobManager, blocker, State.RUNNING);
+        jobManager.submit("queued-1", Priority.NORMAL, null, progress -> "ok");
+        jobManager.submit("queued-2", Priority.NORMAL, null, progress -> "ok");
+
+        assertThatThrownBy(() -> jobManager.submit("overflow", Priority.HIGH, null, progress -> "ok"))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("Job queue is full");
+    }
+
+    @Test
+    void cancel_shouldDropQueuedJobsAndStopRunningJobsAtNextStep() throws Exception {
+        JobManager jobManager = new JobManager(1, 8, 100, Duration.ofHours(1), "", objectMapper);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Integer> completedSteps = new CopyOnWriteArrayList<>();
+        String running = jobManager.submit("running", Priority.NORMAL, null, progress -> {
+            progress.step(0, 3, "first");
+            completedSteps.add(0);
+            started.countDown();
+            release.await();
+            progress.step(1, 3, "second");
+            completedSteps.add(1);
+            return "unreachable";
+        }).jobId();
+        String queued = jobManager.submit("queued", Priority.NORMAL, null, progress -> "unreachable").jobId();
+        assertThat(started.await(AWAIT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+
+        JobStatus cancelledQueued = jobManager.cancel(queued);
+        assertThat(cancelledQueued.state()).isEqualTo(State.CANCELLED);
+        assertThat(cancelledQueued.error()).isEqualTo("Cancelled before start");
+
+        assertThat(jobManager.cancel(running).state()).isEqualTo(State.RUNNING);
+        release.countDown();
+        JobStatus cancelledRunning = awaitTerminal(jobManager, running);
+        assertThat(cancelledRunning.state()).isEqualTo(State.CANCELLED);
+        assertThat(cancelledRunning.error()).isEqualTo("Cancelled during: second");
+        assertThat(cancelledRunning.message()).isEqualTo("first");
+        assertThat(completedSteps).containsExactly(0);
+    }
+
+    @Test
+    void status_shouldEvictFinishedJobsAfterTtlAndBeyondCapacity() throws Exception {
+        JobManager expiring = new JobManager(1, 8, 100, Duration.ofMillis(200), "", objectMapper);
+        String expired = expiring.submit("quick", Priority.NORMAL, null, progress -> "ok").jobId();
+        assertThat(awaitTerminal(expiring, expired).state()).isEqualTo(State.SUCCEEDED);
+        Thread.sleep(300);
+        assertThatThrownBy(() -> expiring.status(expired))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown or expired job: " + expired);
+
+        JobManager bounded = new JobManager(1, 8, 2, Duration.ofHours(1), "", objectMapper);
+        String oldest = bounded.submit("first", Priority.NORMAL, null, progress -> "ok").jobId();
+        awaitTerminal(bounded, oldest);
+        String second = bounded.submit("second", Priority.NORMAL, null, progress -> "ok").jobId();
+        awaitTerminal(bounded, second);
+        String third = bounded.submit("third", Priority.NORMAL, null, progress -> "ok").jobId();
+        awaitTerminal(bounded, third);
+        assertThatThrownBy(() -> bounded.status(oldest)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(bounded.status(second).state()).isEqualTo(State.SUCCEEDED);
+    }
+
+    @Test
+    void sweeper_shouldDeleteExpiredJobsWithoutFurtherCalls(@TempDir Path storeDir) throws Exception {
+        JobManager idle = new JobManager(1, 8, 100, Duration.ofMillis(200), storeDir.toString(), objectMapper);
+        try {
+            String expired = idle.submit("quick", Priority.NORMAL, null, progress -> "ok").jobId();
+            awaitTerminal(idle, expired);
+            Path stored = storeDir.resolve(expired + ".json");
+            assertThat(stored).exists();
+
+            long deadline = System.nanoTime() + AWAIT.toNanos();
+            while (Files.exists(stored) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThat(stored).doesNotExist();
+        } finally {
+            idle.destroy();
+        }
+    }
+
+    @Test
+    void fileStore_shouldSurviveRestart(@TempDir Path storeDir) throws Exception {
+        JobManager before = new JobManager(1, 8, 100, Duration.ofHours(1), storeDir.toString(), objectMapper);
+        String finished = before.submit("finished", Priority.HIGH, null, progress -> {
+            progress.step(0, 1, "working");
+            return "generated";
+        }).jobId();
+        awaitTerminal(before, finished);
+        String interrupted = before.submit("interrupted", Priority.NORMAL, null, this::block).jobId();
+        awaitState(before, interrupted, State.RUNNING);
+
+        JobManager after = new JobManager(1, 8, 100, Duration.ofHours(1), storeDir.toString(), objectMapper);
+
+        JobStatus restored = after.status(finished);
+        assertThat(restored.state()).isEqualTo(State.SUCCEEDED);
+        assertThat(restored.result()).isEqualTo("generated");
+        assertThat(restored.priority()).isEqualTo(Priority.HIGH);
+        assertThat(restored.createdAt()).isEqualTo(before.status(finished).createdAt());
+        JobStatus lost = after.status(interrupted);
+        assertThat(lost.state()).isEqualTo(State.FAILED);
+        assertThat(lost.error()).isEqualTo("Interrupted by server restart");
+
+        release.countDown();
+        awaitTerminal(before, interrupted);
+    }
+
+    static JobStatus awaitTerminal(JobManager jobManager, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + AWAIT.toNanos();
+        JobStatus status = jobManager.status(jobId);
+        while (!status.state().isTerminal() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = jobManager.status(jobId);
+        }
+        return status;
+    }
+
+    private static void awaitState(JobManager jobManager, String jobId, State state) throws InterruptedException {
+        long deadline = System.nanoTime() + AWAIT.toNanos();
+        while (jobManager.status(jobId).state() != state && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(jobManager.status(jobId).state()).isEqualTo(state);
+    }
+
+    private String block(JobProgress progress) throws InterruptedException {
+        release.await();
+        return "released";
+    }
+
+    private JobManager.JobTask recording(List<String> order, String name) {
+        return progress -> {
+            order.add(name);
+            return name;
+        };
+    }
+}
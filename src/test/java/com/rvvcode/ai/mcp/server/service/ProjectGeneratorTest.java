@@ -1,16 +1,20 @@
 package com.rvvcode.ai.mcp.server.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rvvcode.ai.mcp.server.dto.JobStatus;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class ProjectGeneratorTest {
 
-    private final ProjectGenerator projectGenerator = new ProjectGenerator();
+    private final JobManager jobManager = new JobManager(1, 8, 100, Duration.ofHours(1), "", new ObjectMapper());
+    private final ProjectGenerator projectGenerator = new ProjectGenerator(new WorkspaceManager(Path.of(System.getProperty("java.io.tmpdir"))), jobManager);
 
     @Test
     void bootstrapProject_shouldCreateEnterpriseSkeleton(@TempDir Path tempDir) throws Exception {
@@ -19,18 +23,105 @@ class ProjectGeneratorTest {
         String result = projectGenerator.bootstrapProject(
                 projectRoot.toString(),
                 "com.acme.enterprise",
-                "Expose customer APIs");
+                "Expose customer APIs",
+                null, null, null);
 
         assertThat(result).contains("Bootstrapped enterprise project");
         assertThat(Files.exists(projectRoot.resolve("pom.xml"))).isTrue();
         assertThat(Files.exists(projectRoot.resolve("README.md"))).isTrue();
         assertThat(Files.exists(projectRoot.resolve("src/main/resources/application.yml"))).isTrue();
+        assertThat(Files.exists(projectRoot.resolve("src/main/java/com/acme/enterprise/EnterpriseAppApplication.java"))).isTrue();
         assertThat(Files.exists(projectRoot.resolve("src/main/java/com/acme/enterprise/customer/CustomerController.java"))).isTrue();
         assertThat(Files.exists(projectRoot.resolve("src/main/java/com/acme/enterprise/customer/CustomerService.java"))).isTrue();
         assertThat(Files.exists(projectRoot.resolve("src/main/java/com/acme/enterprise/customer/CustomerRepository.java"))).isTrue();
 
         String pom = Files.readString(projectRoot.resolve("pom.xml"));
-        assertThat(pom).contains("ojdbc11").contains("mapstruct").contains("springdoc-openapi-starter-webmvc-ui");
+        assertThat(pom).contains("ojdbc11").contains("mapstruct").contains("springdoc-openapi-starter-webmvc-ui")
+                .contains("flyway-core");
+
+        String applicationYml = Files.readString(projectRoot.resolve("src/main/resources/application.yml"));
+        assertThat(applicationYml).contains("compression:").contains("min-response-size: 2KB");
+        assertThat(Files.readString(projectRoot.resolve("src/main/java/com/acme/enterprise/customer/CustomerEntity.java")))
+                .contains("@Version");
+        assertThat(Files.readString(projectRoot.resolve("src/main/java/com/acme/enterprise/customer/CustomerController.java")))
+                .contains("request.checkNotModified(etag)")
+                .contains("CacheControl.noCache()");
+        assertThat(Files.readString(projectRoot.resolve("src/main/resources/db/migration/V1__create_customer.sql")))
+                .contains("version number(19) default 0 not null");
+        assertThat(Files.readString(projectRoot.resolve("src/main/java/com/acme/enterprise/customer/CustomerService.java")))
+                .contains("package com.acme.enterprise.customer;")
+                .doesNotContain("import com.rvvcode.ai.mcp.server");
+    }
+
+    @Test
+    void bootstrapProject_shouldGenerateReadWriteSplitDataSourceWhenRequested(@TempDir Path tempDir) throws Exception {
+        Path projectRoot = tempDir.resolve("replica-app");
+
+        projectGenerator.bootstrapProject(projectRoot.toString(), "com.acme.replica", "Read heavy APIs", true, null, null);
+
+        Path config = projectRoot.resolve("src/main/java/com/acme/replica/config/datasource");
+        assertThat(Files.readString(config.resolve("ReadWriteRoutingDataSource.java")))
+                .contains("extends AbstractRoutingDataSource")
+                .contains("TransactionSynchronizationManager.isCurrentTransactionReadOnly()");
+        assertThat(Files.readString(config.resolve("ReplicaPoolDataSource.java"))).contains("return primary.getConnection();");
+        assertThat(Files.readString(config.resolve("DataSourceRoutingConfiguration.java")))
+                .contains("new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(");
+        assertThat(Files.readString(config.resolve("ReadReplicaProperties.java"))).contains("@ConfigurationProperties(\"app.datasource\")");
+        assertThat(Files.exists(projectRoot.resolve("src/test/java/com/acme/replica/config/datasource/ReadWriteRoutingDataSourceTest.java")))
+                .isTrue();
+        assertThat(Files.readString(projectRoot.resolve("src/main/resources/application.yml")))
+                .contains("replicas:")
+                .contains("retry-after: 30s");
+
+        Path plainRoot = tempDir.resolve("plain-app");
+        projectGenerator.bootstrapProject(plainRoot.toString(), "com.acme.plain", "APIs", null, null, null);
+        assertThat(Files.exists(plainRoot.resolve("src/main/java/com/acme/plain/config"))).isFalse();
+        assertThat(Files.readString(plainRoot.resolve("src/main/resources/application.yml"))).doesNotContain("replicas:");
+    }
+
+    @Test
+    void bootstrapProject_shouldGenerateLayeredCdsContainerBuild(@TempDir Path tempDir) throws Exception {
+        Path projectRoot = tempDir.resolve("container-app");
+
+        projectGenerator.bootstrapProject(projectRoot.toString(), "com.acme.container", "APIs", null, null, null);
+
+        assertThat(Files.readString(projectRoot.resolve("pom.xml"))).contains("<artifactId>spring-boot-maven-plugin</artifactId>");
+        assertThat(Files.readString(projectRoot.resolve("Dockerfile")))
+                .contains("java -Djarmode=tools -jar application.jar extract --layers --destination layers")
+                .contains("COPY --from=extract /extract/layers/dependencies/ ./")
+                .contains("-XX:ArchiveClassesAtExit=application.jsa")
+                .contains("-Dspring.context.exit=onRefresh")
+                .contains("ENTRYPOINT [\"entrypoint.sh\"]");
+        Path entrypoint = projectRoot.resolve("docker/entrypoint.sh");
+        assertThat(Files.readString(entrypoint))
+                .contains("/sys/fs/cgroup/memory.max")
+                .contains("-XX:MaxRAMPercentage=")
+                .contains("gc=SerialGC")
+                .contains("gc=ZGC")
+                .contains("-XX:SharedArchiveFile=application.jsa -Xshare:auto")
+                .contains("exec java \\\n");
+        assertThat(Files.isExecutable(entrypoint)).isTrue();
+        Path measureScript = projectRoot.resolve("scripts/measure-startup.sh");
+        assertThat(Files.readString(measureScript)).contains("VmRSS").contains("for cds in true false");
+        assertThat(Files.isExecutable(measureScript)).isTrue();
+        assertThat(Files.readString(projectRoot.resolve("src/main/resources/application-training.yml")))
+                .contains("allow_jdbc_metadata_access: false");
+        assertThat(Files.readString(projectRoot.resolve(".dockerignore"))).contains("target/");
+    }
+
+    @Test
+    void bootstrapProject_shouldRunAsBackgroundJobWhenAsync(@TempDir Path tempDir) throws Exception {
+        Path projectRoot = tempDir.resolve("async-app");
+
+        String result = projectGenerator.bootstrapProject(projectRoot.toString(), "com.acme.async", "APIs", null, true, null);
+
+        assertThat(result).startsWith("Job ").contains("bootstrap_project, priority LOW");
+        String jobId = result.substring("Job ".length(), result.indexOf(' ', "Job ".length()));
+        JobStatus status = JobManagerTest.awaitTerminal(jobManager, jobId);
+        assertThat(status.state()).isEqualTo(JobStatus.State.SUCCEEDED);
+        assertThat(status.completedSteps()).isEqualTo(status.totalSteps()).isEqualTo(3);
+        assertThat(status.result()).contains("Bootstrapped enterprise project at " + projectRoot);
+        assertThat(Files.exists(projectRoot.resolve("src/main/java/com/acme/async/customer/CustomerController.java"))).isTrue();
     }
 
     @Test
@@ -38,7 +129,7 @@ class ProjectGeneratorTest {
         Path existing = tempDir.resolve("existing-project");
         Files.createDirectories(existing);
 
-        String result = projectGenerator.bootstrapProject(existing.toString(), "com.acme.app", "req");
+        String result = projectGenerator.bootstrapProject(existing.toString(), "com.acme.app", "req", null, null, null);
 
         assertThat(result).contains("Project already exists");
     }
@@ -0,0 +1,160 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectSymbolIndexTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ProjectSymbolIndex symbolIndex = new ProjectSymbolIndex(meterRegistry, 2);
+
+    @Test
+    void index_shouldOnlyReparseChangedFilesAndRecordMetrics(@TempDir Path tempDir) throws Exception {
+        Path packageDir = tempDir.resolve("src/main/java/com/example/customer");
+        Files.createDirectories(packageDir);
+        Files.writeString(packageDir.resolve("CustomerRepository.java"), """
+                package com.example.customer;
+
+                public interface CustomerRepository {
+                    java.util.Optional<String> findByEmail(String email);
+                }
+                """);
+        Files.writeString(packageDir.resolve("CustomerService.java"), """
+                package com.example.customer;
+
+                public class CustomerService {
+                    private final CustomerRepository repository;
+
+                    public CustomerService(CustomerRepository repository) {
+                        this.repository = repository;
+                    }
+
+                    public java.util.Optional<String> findByEmail(String email) {
+                        return repository.findByEmail(email);
+                    }
+                }
+                """);
+
+        ProjectSymbolIndex.Snapshot initial = symbolIndex.index(tempDir);
+        assertThat(initial.stats().reparsedFiles()).isEqualTo(2);
+        ProjectSymbolIndex.TypeInfo service = initial.find("com.example.customer.CustomerService").orElseThrow();
+        assertThat(service.constructorDependencies()).containsExactly("com.example.customer.CustomerRepository");
+        assertThat(service.methods()).extracting(ProjectSymbolIndex.MethodInfo::returnType)
+                .containsExactly("java.util.Optional<java.lang.String>");
+
+        assertThat(symbolIndex.index(tempDir).stats().reparsedFiles()).isZero();
+
+        Files.writeString(packageDir.resolve("CustomerRepository.java"), """
+                package com.example.customer;
+
+                public interface CustomerRepository {
+                    java.util.Optional<String> findByEmail(String email);
+
+                    long countByStatus(String status);
+                }
+                """);
+        Files.delete(packageDir.resolve("CustomerService.java"));
+
+        ProjectSymbolIndex.Snapshot updated = symbolIndex.index(tempDir);
+        assertThat(updated.stats().reparsedFiles()).isEqualTo(1);
+        assertThat(updated.stats().removedFiles()).isEqualTo(1);
+        assertThat(updated.types()).containsOnlyKeys("com.example.customer.CustomerRepository");
+        assertThat(updated.types().get("com.example.customer.CustomerRepository").methods()).hasSize(2);
+
+        assertThat(meterRegistry.get("mcp.symbol.index.build").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("mcp.symbol.index.build.allocation").summary().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("mcp.symbol.index.types").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void index_shouldRequalifyUnchangedFilesWhenReferencedTypeMovesPackage(@TempDir Path tempDir) throws Exception {
+        Path shared = tempDir.resolve("src/main/java/com/example/shared");
+        Path customer = tempDir.resolve("src/main/java/com/example/customer");
+        Files.createDirectories(shared);
+        Files.createDirectories(customer);
+        Files.writeString(shared.resolve("Money.java"), "package com.example.shared; public class Money {}");
+        Files.writeString(shared.resolve("Address.java"), "package com.example.shared; public class Address {}");
+        Files.writeString(customer.resolve("CustomerService.java"), """
+                package com.example.customer;
+
+                import com.example.shared.*;
+
+                public class CustomerService {
+                    public Address findAddress(Money balance) {
+                        return null;
+                    }
+                }
+                """);
+        Files.writeString(customer.resolve("CustomerRepository.java"), "package com.example.customer; public interface CustomerRepository {}");
+
+        ProjectSymbolIndex.MethodInfo before = symbolIndex.index(tempDir)
+                .find("com.example.customer.CustomerService").orElseThrow().methods().get(0);
+        assertThat(before.returnType()).isEqualTo("com.example.shared.Address");
+
+        Files.delete(shared.resolve("Address.java"));
+        Files.writeString(customer.resolve("Address.java"), "package com.example.customer; public class Address {}");
+
+        ProjectSymbolIndex.Snapshot moved = symbolIndex.index(tempDir);
+        assertThat(moved.types()).containsKey("com.example.customer.Address").doesNotContainKey("com.example.shared.Address");
+        assertThat(moved.find("com.example.customer.CustomerService").orElseThrow().methods().get(0).returnType())
+                .isEqualTo("com.example.customer.Address");
+        // The new file and CustomerService, which refers to Address; Money and CustomerRepository stay cached.
+        assertThat(moved.stats().reparsedFiles()).isEqualTo(2);
+    }
+
+    @Test
+    void index_shouldAcceptCompilationUnitsWithoutTypes(@TempDir Path tempDir) throws Exception {
+        Path packageDir = tempDir.resolve("src/main/java/com/example");
+        Files.createDirectories(packageDir);
+        Files.writeString(packageDir.resolve("package-info.java"), """
+                @Deprecated
+                package com.example;
+                """);
+        Files.writeString(packageDir.resolve("Empty.java"), "package com.example;\n");
+        Files.writeString(packageDir.resolve("Customer.java"), """
+                package com.example;
+
+                public class Customer {
+                    private final org.example.Missing missing;
+                    private final Unknown unknown;
+
+                    public Customer(org.example.Missing missing, Unknown unknown) {
+                        this.missing = missing;
+                        this.unknown = unknown;
+                    }
+                }
+                """);
+
+        ProjectSymbolIndex.Snapshot snapshot = symbolIndex.index(tempDir);
+
+        assertThat(snapshot.stats().files()).isEqualTo(3);
+        assertThat(snapshot.types()).containsOnlyKeys("com.example.Customer");
+        assertThat(snapshot.types().get("com.example.Customer").constructorDependencies())
+                .containsExactly("org.example.Missing", "Unknown");
+    }
+
+    @Test
+    void index_shouldDropLeastRecentlyUsedProjectBeyondLimit(@TempDir Path tempDir) throws Exception {
+        for (String project : new String[] {"a", "b", "c"}) {
+            Path packageDir = tempDir.resolve(project).resolve("src/main/java/com/example");
+            Files.createDirectories(packageDir);
+            Files.writeString(packageDir.resolve("Customer.java"), "package com.example; public class Customer {}");
+        }
+
+        symbolIndex.index(tempDir.resolve("a"));
+        symbolIndex.index(tempDir.resolve("b"));
+        symbolIndex.index(tempDir.resolve("a"));
+        symbolIndex.index(tempDir.resolve("c"));
+
+        assertThat(symbolIndex.index(tempDir.resolve("a")).stats().reparsedFiles()).isZero();
+        assertThat(symbolIndex.index(tempDir.resolve("b")).stats().reparsedFiles()).isEqualTo(1);
+        assertThat(meterRegistry.get("mcp.symbol.index.projects").gauge().value()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,119 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaMigrationGeneratorTest {
+
+    private final SchemaMigrationGenerator generator = new SchemaMigrationGenerator();
+
+    private final Map<String, String> fields = Map.of(
+            "email", "String", "status", "String", "name", "String", "createdAt", "java.time.Instant");
+
+    @Test
+    void planIndexes_shouldSplitOrBranchesAndIgnoreNonIndexablePredicates() {
+        List<SchemaMigrationGenerator.FinderQuery> finders = SchemaMigrationGenerator.parseRepositoryMethods(List.of(
+                        "List<CustomerEntity> findByEmailOrStatusAndCreatedAtGreaterThanEqual(String email, String status, Instant createdAt)",
+                        "List<CustomerEntity> findByNameContainingIgnoreCase(String name)",
+                        "List<CustomerEntity> findByNameEndingWith(String name)",
+                        "@Query(\"select c from CustomerEntity c where c.name = ?1\") List<CustomerEntity> byName(String name)"))
+                .stream()
+                .flatMap(method -> generator.parseFinder(method, fields).stream())
+                .toList();
+
+        List<SchemaMigrationGenerator.IndexDefinition> indexes = generator.planIndexes("customer", fields, finders, List.of());
+
+        assertThat(indexes).extracting(SchemaMigrationGenerator.IndexDefinition::columns)
+                .containsExactly(List.of("email"), List.of("status", "created_at"));
+    }
+
+    @Test
+    void planIndexes_shouldUseOrderByColumnsAndSkipIndexesCoveredByExistingOnes() {
+        List<SchemaMigrationGenerator.FinderQuery> finders = SchemaMigrationGenerator.parseRepositoryMethods(List.of(
+                        "List<CustomerEntity> findTop10ByStatusOrderByCreatedAtDesc(String status)",
+                        "List<CustomerEntity> findAllByOrderByNameAsc()",
+                        "Optional<CustomerEntity> findByEmail(String email)"))
+                .stream()
+                .flatMap(method -> generator.parseFinder(method, fields).stream())
+                .toList();
+        List<SchemaMigrationGenerator.IndexDefinition> existing = List.of(
+                new SchemaMigrationGenerator.IndexDefinition("uk_customer_email", "customer", List.of("email", "status"), null));
+
+        List<SchemaMigrationGenerator.IndexDefinition> indexes = generator.planIndexes("customer", fields, finders, existing);
+
+        assertThat(indexes).extracting(SchemaMigrationGenerator.IndexDefinition::name)
+                .containsExactly("ix_customer_status_created_at", "ix_customer_name");
+    }
+
+    @Test
+    void planIndexes_shouldKeepCollidingLongIndexNamesWithinOracleIdentifierLimit() {
+        Map<String, String> longFields = Map.of("shippingAddressPostalCode", "String");
+        List<SchemaMigrationGenerator.FinderQuery> finders = SchemaMigrationGenerator.parseRepositoryMethods(List.of(
+                        "List<ConsignmentEntity> findByShippingAddressPostalCode(String shippingAddressPostalCode)"))
+                .stream()
+                .flatMap(method -> generator.parseFinder(method, longFields).stream())
+                .toList();
+        String taken = generator.planIndexes("consignment", longFields, finders, List.of()).get(0).name();
+        List<SchemaMigrationGenerator.IndexDefinition> existing = new ArrayList<>();
+        existing.add(new SchemaMigrationGenerator.IndexDefinition(taken, "other", List.of("x"), null));
+        for (int n = 2; n <= 12; n++) {
+            String name = taken.substring(0, Math.min(taken.length(), 30 - ("_" + n).length())) + "_" + n;
+            existing.add(new SchemaMigrationGenerator.IndexDefinition(name, "other", List.of("x"), null));
+        }
+
+        List<SchemaMigrationGenerator.IndexDefinition> indexes =
+                generator.planIndexes("consignment", longFields, finders, existing);
+
+        assertThat(taken).hasSize(30);
+        assertThat(indexes).extracting(SchemaMigrationGenerator.IndexDefinition::name)
+                .singleElement()
+                .satisfies(name -> assertThat(name).hasSize(30).endsWith("_13"));
+    }
+
+    @Test
+    void existingColumns_shouldReadCreateTableAndLaterAlters() {
+        List<String> migrations = List.of("""
+                create table shipment (
+                    id number(19) generated by default as identity primary key,
+                    weight number(19,2),
+                    carrier_id number(19) constraint fk_shipment_carrier_id references carrier (id),
+                    constraint uk_shipment_weight unique (weight)
+                );
+
+                create table other (
+                    ignored varchar2(255)
+                );
+                """, """
+                alter table shipment add status varchar2(255);
+                alter table SHIPMENT add (created_at timestamp);
+                """);
+
+        assertThat(generator.existingColumns(migrations, "shipment"))
+                .containsExactly("id", "weight", "carrier_id", "status", "created_at");
+    }
+
+    @Test
+    void existingColumns_shouldIgnoreConstraintsAddedToExistingTables() {
+        List<String> migrations = List.of("""
+                create table parcel (
+                    id number(19) generated by default as identity primary key,
+                    carrier_id number(19)
+                );
+                """, """
+                alter table parcel add constraint fk_parcel_carrier_id foreign key (carrier_id) references carrier (id);
+                alter table parcel add primary key (id);
+                alter table parcel add unique (carrier_id);
+                alter table parcel add foreign key (carrier_id) references carrier (id);
+                alter table parcel add check (carrier_id > 0);
+                alter table parcel add (weight number(19,2), label varchar2(255), constraint uk_parcel_label unique (label));
+                """);
+
+        assertThat(generator.existingColumns(migrations, "parcel"))
+                .containsExactly("id", "carrier_id", "weight", "label");
+    }
+}
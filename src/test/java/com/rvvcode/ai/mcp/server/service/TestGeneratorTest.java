@@ -1,67 +1,276 @@
 package com.rvvcode.ai.mcp.server.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class TestGeneratorTest {
 
-    private final TestGenerator testGenerator = new TestGenerator();
+    private final JobManager jobManager = new JobManager(1, 8, 100, Duration.ofHours(1), "", new ObjectMapper());
 
     @Test
     void generateTests_shouldCreateMockitoStyleTestForServiceClass(@TempDir Path tempDir) throws Exception {
-        Path originalUserDir = Path.of(System.getProperty("user.dir"));
-        System.setProperty("user.dir", tempDir.toString());
-        try {
-            String source = """
-                    package com.example.customer;
+        TestGenerator testGenerator = new TestGenerator(new ProjectSymbolIndex(new SimpleMeterRegistry(), 4), new WorkspaceManager(tempDir), jobManager);
+        String source = """
+                package com.example.customer;
 
-                    import org.springframework.stereotype.Service;
+                import org.springframework.stereotype.Service;
 
-                    @Service
-                    public class CustomerService {
-                        public String findByEmail() { return \"ok\"; }
-                    }
-                    """;
+                @Service
+                public class CustomerService {
+                    public String findByEmail() { return \"ok\"; }
+                }
+                """;
 
-            String result = testGenerator.generateTests("CustomerService", source);
+        String result = testGenerator.generateTests("CustomerService", source, null, null, null);
 
-            assertThat(result).contains("Generated test at");
-            assertThat(result).contains("@ExtendWith(MockitoExtension.class)");
-            assertThat(result).contains("assertThat(true).isTrue()");
-            assertThat(Files.exists(tempDir.resolve("generated-tests/CustomerServiceTest.java"))).isTrue();
-        } finally {
-            System.setProperty("user.dir", originalUserDir.toString());
-        }
+        assertThat(result).contains("Generated test at");
+        assertThat(result).contains("@ExtendWith(MockitoExtension.class)");
+        assertThat(result).contains("assertThat(true).isTrue()");
+        assertThat(Files.exists(tempDir.resolve("generated-tests/CustomerServiceTest.java"))).isTrue();
     }
 
     @Test
     void generateTests_shouldCreateWebMvcTestForControllerClass(@TempDir Path tempDir) throws Exception {
-        Path originalUserDir = Path.of(System.getProperty("user.dir"));
-        System.setProperty("user.dir", tempDir.toString());
-        try {
-            String source = """
-                    package com.example.customer;
+        TestGenerator testGenerator = new TestGenerator(new ProjectSymbolIndex(new SimpleMeterRegistry(), 4), new WorkspaceManager(tempDir), jobManager);
+        String source = """
+                package com.example.customer;
+
+                import org.springframework.web.bind.annotation.RestController;
+
+                @RestController
+                public class CustomerController {
+                    public void findAll() {}
+                }
+                """;
+
+        String result = testGenerator.generateTests("CustomerController", source, null, null, null);
+
+        assertThat(result).contains("@WebMvcTest(CustomerController.class)");
+        assertThat(result).contains("mockMvc.perform(get(\"/api/customers\"))");
+        assertThat(result).contains("void findAll_shouldReturnOk()");
+        assertThat(Files.exists(tempDir.resolve("generated-tests/CustomerControllerTest.java"))).isTrue();
+    }
+
+    @Test
+    void generateTests_shouldNotExpectOkFromLookupsWhoseDependencyCannotBeStubbed(@TempDir Path tempDir) throws Exception {
+        TestGenerator testGenerator = new TestGenerator(new ProjectSymbolIndex(new SimpleMeterRegistry(), 4), new WorkspaceManager(tempDir), jobManager);
+        String source = """
+                package com.example.customer;
+
+                import org.springframework.web.bind.annotation.GetMapping;
+                import org.springframework.web.bind.annotation.PathVariable;
+                import org.springframework.web.bind.annotation.RestController;
+
+                @RestController
+                public class CustomerController {
+                    private final com.example.billing.InvoiceClient invoiceClient;
+
+                    public CustomerController(com.example.billing.InvoiceClient invoiceClient) {
+                        this.invoiceClient = invoiceClient;
+                    }
+
+                    @GetMapping("/api/customers")
+                    public String list() { return "[]"; }
+
+                    @GetMapping("/api/customers/{id}")
+                    public String byId(@PathVariable Long id) { return invoiceClient.find(id); }
+                }
+                """;
+
+        String result = testGenerator.generateTests("CustomerController", source, null, null, null);
+
+        assertThat(result).doesNotContain("given(");
+        assertThat(result).contains("void list_shouldReturnOk()");
+        assertThat(result).contains("void byId_shouldNotFail()");
+        assertThat(result).contains(".andExpect(status().is(org.hamcrest.Matchers.lessThan(500)));");
+    }
+
+    @Test
+    void generateTests_shouldResolveControllerDependenciesAndMappingsFromProjectIndex(@TempDir Path tempDir) throws Exception {
+        Path featureDir = tempDir.resolve("src/main/java/com/example/customer");
+        Files.createDirectories(featureDir);
+        Files.writeString(tempDir.resolve("src/main/java/com/example/customer/CustomerDto.java"), """
+                package com.example.customer;
+
+                public record CustomerDto(Long id, String email) {
+                }
+                """);
+        Files.createDirectories(tempDir.resolve("src/main/java/com/example/shared"));
+        Files.writeString(tempDir.resolve("src/main/java/com/example/shared/CustomerFacade.java"), """
+                package com.example.shared;
+
+                import com.example.customer.CustomerDto;
+                import java.util.List;
+
+                public interface CustomerFacade {
+                    List<CustomerDto> findAll();
+                }
+                """);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TestGenerator testGenerator = new TestGenerator(new ProjectSymbolIndex(meterRegistry, 4), new WorkspaceManager(tempDir), jobManager);
+        String source = """
+                package com.example.customer;
+
+                import com.example.shared.CustomerFacade;
+                import org.springframework.web.bind.annotation.GetMapping;
+                import org.springframework.web.bind.annotation.PathVariable;
+                import org.springframework.web.bind.annotation.RequestMapping;
+                import org.springframework.web.bind.annotation.RestController;
+
+                import java.util.List;
 
-                    import org.springframework.web.bind.annotation.RestController;
+                @RestController
+                @RequestMapping("/v2/clients")
+                public class CustomerController {
 
-                    @RestController
-                    public class CustomerController {
-                        public void findAll() {}
+                    private final CustomerFacade facade;
+
+                    public CustomerController(CustomerFacade facade) {
+                        this.facade = facade;
                     }
-                    """;
 
-            String result = testGenerator.generateTests("CustomerController", source);
+                    @GetMapping
+                    public List<CustomerDto> list() { return facade.findAll(); }
+
+                    @GetMapping(path = "/{id}")
+                    public CustomerDto byId(@PathVariable Long id) { return null; }
+                }
+                """;
+
+        String result = testGenerator.generateTests("CustomerController", source, null, null, null);
+
+        assertThat(result).contains("Symbol index: files=2 types=2 reparsed=2");
+        assertThat(meterRegistry.get("mcp.symbol.index.build").timer().count()).isEqualTo(1);
+        assertThat(result).contains("import com.example.shared.CustomerFacade;");
+        assertThat(result).contains("@MockBean\n    private CustomerFacade customerFacade;");
+        assertThat(result).doesNotContain("CustomerService");
+        assertThat(result).contains("mockMvc.perform(get(\"/v2/clients\"))");
+        assertThat(result).contains("mockMvc.perform(get(\"/v2/clients/1\"))");
+        assertThat(result).contains("given(customerFacade.findAll()).willReturn(List.of(new CustomerDto(1L, \"1\")));");
+        assertThat(result).contains("void byId_shouldReturnOk()");
+    }
+
+    @Test
+    void generateTests_shouldCreateQueryBudgetDataJpaTestForRepository(@TempDir Path tempDir) throws Exception {
+        Files.createDirectories(tempDir.resolve("src/main/java/com/example/carrier"));
+        Files.writeString(tempDir.resolve("src/main/java/com/example/carrier/CarrierEntity.java"), """
+                package com.example.carrier;
+
+                import jakarta.persistence.*;
+
+                @Entity
+                public class CarrierEntity {
+                    @Id
+                    private Long id;
+                    private String name;
+                }
+                """);
+        Files.createDirectories(tempDir.resolve("src/main/java/com/example/parcel"));
+        Files.writeString(tempDir.resolve("src/main/java/com/example/parcel/ParcelEntity.java"), """
+                package com.example.parcel;
+
+                import com.example.carrier.CarrierEntity;
+                import jakarta.persistence.*;
+
+                @Entity
+                public class ParcelEntity {
+                    @Id
+                    private Long id;
+                    @Version
+                    private Long version;
+                    private String email;
+                    private String status;
+                    private java.time.LocalDate shippedOn;
+                    @ManyToOne(fetch = FetchType.LAZY)
+                    private CarrierEntity carrier;
+                }
+                """);
+        TestGenerator testGenerator = new TestGenerator(new ProjectSymbolIndex(new SimpleMeterRegistry(), 4), new WorkspaceManager(tempDir), jobManager);
+        String source = """
+                package com.example.parcel;
+
+                import org.springframework.data.domain.Page;
+                import org.springframework.data.domain.Pageable;
+                import org.springframework.data.jpa.repository.JpaRepository;
+
+                import java.util.List;
+                import java.util.Optional;
+                import java.util.stream.Stream;
+
+                public interface ParcelRepository extends JpaRepository<ParcelEntity, Long> {
+
+                    Optional<ParcelEntity> findByEmail(String email);
+
+                    List<ParcelEntity> findByCarrierIdAndStatus(Long carrierId, String status);
+
+                    List<ParcelEntity> findByStatusAndShippedOnAfter(String status, java.time.LocalDate shippedOn);
+
+                    Page<ParcelEntity> findByStatus(String status, Pageable pageable);
+
+                    Stream<ParcelEntity> streamAllBy();
+
+                    long countByStatus(String status);
+
+                    void deleteByStatus(String status);
+                }
+                """;
+
+        String result = testGenerator.generateTests("ParcelRepository", source, null, null, null);
+
+        assertThat(result).contains("Generated test at " + tempDir.resolve("generated-tests/ParcelRepositoryTest.java"));
+        assertThat(result).contains("@DataJpaTest(properties = {")
+                .contains("\"spring.jpa.properties.hibernate.generate_statistics=true\"")
+                .contains("@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)")
+                .contains("import com.example.carrier.CarrierEntity;")
+                .contains("private static final int MAX_LOADS_PER_ROW = 2;")
+                .contains("private static final Duration LOOKUP_BUDGET = budget(\"query.budget.lookup-millis\");")
+                .contains("assertThat(statistics.getQueryExecutionCount()).as(\"JPA queries\")")
+                .contains("if (budget != null) {");
+        assertThat(result).contains("            carrier.setName(\"name-\" + i);\n")
+                .contains("            row.setEmail(\"email-\" + i);\n")
+                .contains("            row.setStatus(\"status-\" + (i % DISTINCT_VALUES));\n")
+                .contains("            row.setShippedOn(LocalDate.of(2024, 1, 1).plusDays(i));\n")
+                .contains("            row.setCarrier(carriers.get(i % PARENT_ROWS));\n")
+                .doesNotContain("row.setId(")
+                .doesNotContain("row.setVersion(");
+        assertThat(result).contains("""
+                        String email = rows.get(0).getEmail();
+                        long expected = rows.stream()
+                                .filter(row -> row.getEmail() != null && row.getEmail().equals(email))
+                                .count();
+
+                        Optional<ParcelEntity> result = measure(() -> repository.findByEmail(email));
 
-            assertThat(result).contains("@WebMvcTest(CustomerController.class)");
-            assertThat(result).contains("mockMvc.perform(get(\"/api/customers\"))");
-            assertThat(Files.exists(tempDir.resolve("generated-tests/CustomerControllerTest.java"))).isTrue();
-        } finally {
-            System.setProperty("user.dir", originalUserDir.toString());
-        }
+                        assertThat(result.stream().count()).isEqualTo(expected);
+                        assertQueryCost("findByEmail", 1, result.stream().count(), LOOKUP_BUDGET);
+                """);
+        assertThat(result).contains("        Long carrierId = rows.get(0).getCarrier().getId();\n")
+                .contains("repository.findByCarrierIdAndStatus(carrierId, status)")
+                .contains("assertThat(result).hasSize((int) expected);");
+        assertThat(result).contains("""
+                        String status = rows.get(0).getStatus();
+                        LocalDate shippedOn = rows.get(ROWS / 2).getShippedOn();
+                        long expected = rows.stream()
+                                .filter(row -> row.getStatus() != null && row.getStatus().equals(status)
+                                        && row.getShippedOn() != null && row.getShippedOn().compareTo(shippedOn) > 0)
+                                .count();
+                """);
+        assertThat(result).contains("repository.findByStatus(status, PageRequest.of(0, PAGE_SIZE))")
+                .contains("assertThat(result.getNumberOfElements()).isEqualTo((int) Math.min(expected, PAGE_SIZE));")
+                .contains("assertQueryCost(\"findByStatus\", 2, result.getNumberOfElements(), LOOKUP_BUDGET);");
+        assertThat(result).contains("try (Stream<ParcelEntity> stream = repository.streamAllBy()) {")
+                .contains("assertQueryCost(\"streamAllBy\", 1, result.size(), SCAN_BUDGET);");
+        assertThat(result).contains("long result = measure(() -> repository.countByStatus(status));")
+                .contains("assertThat(result).isEqualTo(expected);")
+                .contains("assertQueryCost(\"countByStatus\", 1, 0, LOOKUP_BUDGET);");
+        assertThat(result).doesNotContain("deleteByStatus");
     }
 }
@@ -0,0 +1,156 @@
+package com.rvvcode.ai.mcp.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkspaceManagerTest {
+
+    private static final int SESSIONS = 8;
+
+    private final JobManager jobManager = new JobManager(1, 8, 100, Duration.ofHours(1), "", new ObjectMapper());
+
+    @Test
+    void resolve_shouldKeepProjectsInsideSandbox(@TempDir Path tempDir) throws Exception {
+        Path sandbox = tempDir.resolve("sandbox");
+        WorkspaceManager workspaceManager = new WorkspaceManager(sandbox);
+
+        assertThat(workspaceManager.resolve(null)).isEqualTo(sandbox);
+        assertThat(workspaceManager.resolve("app")).isEqualTo(sandbox.resolve("app"));
+        assertThat(workspaceManager.resolve(sandbox.resolve("nested/app").toString())).isEqualTo(sandbox.resolve("nested/app"));
+
+        assertThatThrownBy(() -> workspaceManager.resolve("../outside"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("is outside the sandbox");
+        assertThatThrownBy(() -> workspaceManager.resolve(tempDir.resolve("other").toString()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("is outside the sandbox");
+
+        Files.createDirectories(tempDir.resolve("outside"));
+        Files.createSymbolicLink(sandbox.resolve("link"), tempDir.resolve("outside"));
+        assertThatThrownBy(() -> workspaceManager.resolve("link/app"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("resolves outside the sandbox");
+    }
+
+    @Test
+    void concurrentSessions_shouldNotSeeEachOthersProjects(@TempDir Path tempDir) throws Exception {
+        WorkspaceManager workspaceManager = new WorkspaceManager(tempDir);
+        ProjectGenerator projectGenerator = new ProjectGenerator(workspaceManager, jobManager);
+        DomainEnhancer domainEnhancer = new DomainEnhancer(workspaceManager, jobManager);
+
+        List<String> results = runConcurrently(session -> () -> {
+            String project = "session-" + session;
+            String bootstrap = projectGenerator.bootstrapProject(project, "com.session.s" + session, "APIs", null, null, null);
+            String enhance = domainEnhancer.enhanceDomain("Item" + session, Map.of("email", "String"),
+                    List.of("java.util.Optional<Item" + session + "Entity> findByEmail(String email)"), null, null, project, null, null);
+            return bootstrap + "\n" + enhance;
+        });
+
+        for (int session = 0; session < SESSIONS; session++) {
+            assertThat(results.get(session)).doesNotContain("Failed to");
+            Path javaRoot = tempDir.resolve("session-" + session).resolve("src/main/java/com/session");
+            try (Stream<Path> packages = Files.list(javaRoot)) {
+                assertThat(packages.map(path -> path.getFileName().toString())).containsExactly("s" + session);
+            }
+            Path basePackageDir = javaRoot.resolve("s" + session);
+            assertThat(basePackageDir.resolve("item" + session + "/Item" + session + "Entity.java")).exists();
+            try (Stream<Path> features = Files.list(basePackageDir)) {
+                assertThat(features.map(path -> path.getFileName().toString()).filter(name -> name.startsWith("item")))
+                        .containsExactly("item" + session);
+            }
+        }
+    }
+
+    @Test
+    void concurrentWritesToSameProject_shouldBeSerialized(@TempDir Path tempDir) throws Exception {
+        WorkspaceManager workspaceManager = new WorkspaceManager(tempDir);
+        new ProjectGenerator(workspaceManager, jobManager).bootstrapProject("shared", "com.shared", "APIs", null, null, null);
+        DomainEnhancer domainEnhancer = new DomainEnhancer(workspaceManager, jobManager);
+
+        List<String> results = runConcurrently(session -> () -> domainEnhancer.enhanceDomain("Item" + session,
+                Map.of("code", "String"), List.of(), null, null, "shared", null, null));
+
+        assertThat(results).allSatisfy(result -> assertThat(result).contains("Schema migration: "));
+        try (Stream<Path> migrations = Files.list(tempDir.resolve("shared/src/main/resources/db/migration"))) {
+            List<String> versions = migrations.map(path -> path.getFileName().toString())
+                    .map(name -> name.substring(0, name.indexOf("__")))
+                    .toList();
+            // V1 creates the bootstrap customer table; every enhance call must have claimed its own version.
+            assertThat(versions).hasSize(SESSIONS + 1).doesNotHaveDuplicates();
+        }
+        assertThat(workspaceManager.lockedProjects()).isZero();
+    }
+
+    @Test
+    void writes_shouldNotFollowSymbolicLinksOutOfTheProject(@TempDir Path tempDir) throws Exception {
+        Path sandbox = tempDir.resolve("sandbox");
+        Path outside = Files.createDirectories(tempDir.resolve("outside"));
+        WorkspaceManager workspaceManager = new WorkspaceManager(sandbox);
+        new ProjectGenerator(workspaceManager, jobManager).bootstrapProject("app", "com.app", "APIs", null, null, null);
+        Path projectRoot = sandbox.resolve("app");
+        Path migrationsRoot = projectRoot.resolve("src/main/resources/db");
+        Files.move(migrationsRoot, projectRoot.resolve("db-backup"));
+        Files.createSymbolicLink(migrationsRoot, outside);
+
+        String result = new DomainEnhancer(workspaceManager, jobManager)
+                .enhanceDomain("Item", Map.of("code", "String"), List.of(), null, null, "app", null, null);
+
+        assertThat(result).startsWith("Failed to").contains("resolves outside the project");
+        try (Stream<Path> escaped = Files.walk(outside)) {
+            assertThat(escaped).containsExactly(outside);
+        }
+
+        Files.createSymbolicLink(projectRoot.resolve("link.txt"), outside.resolve("created.txt"));
+        assertThatThrownBy(() -> WorkspaceManager.writeString(projectRoot, projectRoot.resolve("link.txt"), "x"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("resolves outside the project");
+        assertThat(outside.resolve("created.txt")).doesNotExist();
+        assertThat(WorkspaceManager.writeString(projectRoot, projectRoot.resolve("docs/notes.txt"), "x")).exists();
+    }
+
+    private List<String> runConcurrently(SessionCall call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SESSIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int session = 0; session < SESSIONS; session++) {
+                Callable<String> task = call.create(session);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<String> results = new ArrayList<>();
+            for (Future<String> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SessionCall {
+        Callable<String> create(int session);
+    }
+}